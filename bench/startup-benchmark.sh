@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Startup-time benchmark: plain fat jar vs. the startup-optimized setup used in the Dockerfile
+# (prod profile + Spring AOT + CDS archive). Postgres and Mongo must be reachable on localhost,
+# e.g. `docker compose -f jenkins/docker-compose.yml up -d postgres mongo`.
+#
+# Usage:
+#   ./mvnw -Pstartup -DskipTests package
+#   bench/startup-benchmark.sh [runs]
+#
+# Prints one line per variant and, at the end, a Markdown table for the "Startup time" section of README.md.
+set -euo pipefail
+
+RUNS=${1:-5}
+JAR=target/ZebraPRJ-0.0.1-SNAPSHOT.jar
+WORK=target/startup-bench
+DB_OPTS=(-Dspring.datasource.url=jdbc:postgresql://localhost:5432/zebra_db
+         -Dspring.data.mongodb.host=localhost
+         -Dserver.port=0
+         -Dgrpc.server.port=0)
+
+# Starts the app, waits for the "Started" log line and prints the time Spring reports
+run_once() {
+  local log=$1; shift
+  "$@" > "$log" 2>&1 &
+  local pid=$!
+  for _ in $(seq 1200); do
+    grep -q "Started ZebraPrjApplication" "$log" && break
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "startup failed, see $log" >&2
+      exit 1
+    fi
+    sleep 0.1
+  done
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  sed -n 's/.*Started ZebraPrjApplication in \([0-9.]*\) seconds.*/\1/p' "$log"
+}
+
+measure() {
+  local label=$1; shift
+  local times=()
+  for i in $(seq "$RUNS"); do
+    times+=("$(run_once "$WORK/$label-$i.log" "$@")")
+  done
+  printf '%s\n' "${times[@]}" | awk -v label="$label" -v table="$WORK/results.md" '
+    { sum += $1; if (min == "" || $1 < min) min = $1 }
+    END {
+      printf "%-22s runs=%-3d mean=%6.2fs min=%6.2fs\n", label, NR, sum / NR, min
+      printf "| %s | %d | %.2f s | %.2f s |\n", label, NR, sum / NR, min >> table
+    }'
+}
+
+rm -rf "$WORK" && mkdir -p "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/extracted"
+# Training run, same as in the Dockerfile
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+     -Dspring.aot.enabled=true -Dspring.profiles.active=prod "${DB_OPTS[@]}" \
+     -jar "$WORK/extracted/app.jar" > "$WORK/training.log" 2>&1
+
+{
+  echo "Measured $(date +%Y-%m-%d) on $(nproc) CPUs, $(java -version 2>&1 | head -1)"
+  echo
+  echo "| Variant | Runs | Mean | Min |"
+  echo "|---|---|---|---|"
+} > "$WORK/results.md"
+
+measure "baseline" java "${DB_OPTS[@]}" -jar "$JAR"
+measure "prod-profile" java -Dspring.profiles.active=prod "${DB_OPTS[@]}" -jar "$WORK/extracted/app.jar"
+measure "prod+aot+cds" java -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true \
+        -Dspring.profiles.active=prod "${DB_OPTS[@]}" -jar "$WORK/extracted/app.jar"
+
+echo
+cat "$WORK/results.md"
@@ -1,29 +1,76 @@
 package com.example.zebraprj;
 
+import com.example.zebraprj.cache.CoalescingUserReader;
+import com.example.zebraprj.cache.UsersSnapshotCache;
+import com.example.zebraprj.dto.AddUsersResponse;
+import com.example.zebraprj.dto.DeleteInstruction;
+import com.example.zebraprj.dto.DeleteUsersResponse;
+import com.example.zebraprj.dto.ErrorResponse;
+import com.example.zebraprj.dto.FoundUsersResponse;
+import com.example.zebraprj.dto.JobAcceptedResponse;
+import com.example.zebraprj.dto.LookupRequest;
+import com.example.zebraprj.dto.RecordStatus;
+import com.example.zebraprj.idempotency.IdempotencyKeyReuseException;
+import com.example.zebraprj.idempotency.IdempotencyStore;
+import com.example.zebraprj.job.UserJob;
+import com.example.zebraprj.job.UserJobService;
 import com.example.zebraprj.model.User;
-import com.example.zebraprj.repository.UserRepository;
+import com.example.zebraprj.profiling.UserBatchEvent;
+import com.example.zebraprj.service.ChunkedBatchExecutor;
+import com.example.zebraprj.service.UserRecordOperations;
+import com.example.zebraprj.web.BinaryMediaTypes;
+import com.example.zebraprj.web.ClientIdentity;
 
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @RestController
 @Tag(name = "ZebraAPI", description = "API for Zebra application")
 public class ZebraPrjController {
 
-    private final UserRepository userRepository;
+    private static final List<MediaType> USERS_FORMATS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.APPLICATION_PROTOBUF, MediaType.APPLICATION_CBOR, BinaryMediaTypes.APPLICATION_SMILE);
 
-    public ZebraPrjController(UserRepository userRepository){
-        this.userRepository = userRepository;
+    private final CoalescingUserReader userReader;
+    private final UsersSnapshotCache usersSnapshotCache;
+    private final ChunkedBatchExecutor batchExecutor;
+    private final UserRecordOperations recordOperations;
+    private final UserJobService jobService;
+    private final IdempotencyStore idempotencyStore;
+
+    public ZebraPrjController(CoalescingUserReader userReader,
+                              UsersSnapshotCache usersSnapshotCache, ChunkedBatchExecutor batchExecutor,
+                              UserRecordOperations recordOperations, UserJobService jobService,
+                              IdempotencyStore idempotencyStore){
+        this.userReader = userReader;
+        this.usersSnapshotCache = usersSnapshotCache;
+        this.batchExecutor = batchExecutor;
+        this.recordOperations = recordOperations;
+        this.jobService = jobService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @GetMapping(value = "/hello", produces = MediaType.TEXT_PLAIN_VALUE)
@@ -36,107 +83,130 @@ public class ZebraPrjController {
         return "Hello";
     }
 
-    @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/users", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_PROTOBUF_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Get list of users",
-            description = "Return list of users with their parameters (id, name, email, birthdate)")
+            description = "Return list of users with their parameters (id, name, email, birthdate). " +
+                    "JSON by default; Accept: application/x-protobuf returns a GetUsersResponse message (user.proto), " +
+                    "application/cbor and application/x-jackson-smile the JSON structure in those encodings. " +
+                    "Supports conditional requests via ETag / If-None-Match")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of users"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of users",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = User.class)))),
+            @ApiResponse(responseCode = "304", description = "List of users has not changed since the given ETag"),
             @ApiResponse(responseCode = "500", description = "=( Internal server error =(")
     })
-    public List<User> getUsers(){
-        return userRepository.findAll();
+    public ResponseEntity<?> getUsers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+        UsersSnapshotCache.Snapshot snapshot = usersSnapshotCache.current();
+        // JSON and Protobuf are pre-encoded in the snapshot; CBOR / Smile are written by the Jackson converters
+        MediaType format = usersFormat(accept);
+        if (MediaType.APPLICATION_JSON.equals(format)) {
+            return conditionalGet(ifNoneMatch, snapshot.etag(), format, snapshot.json());
+        }
+        if (MediaType.APPLICATION_PROTOBUF.equals(format)) {
+            return conditionalGet(ifNoneMatch, variantETag(snapshot.etag(), "protobuf"), format, snapshot.protobufBytes());
+        }
+        return conditionalGet(ifNoneMatch, variantETag(snapshot.etag(), format.getSubtype()), format, snapshot.users());
     }
 
-    @PostMapping(value = "/users", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Add new users", description = "Add one or more users to the database, checking for unique name and email")
+    @PostMapping(value = "/users", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Add new users", description = "Add one or more users to the database, checking for unique name and email. " +
+            "With ?async=true the import runs as a background job, see GET /jobs/{id}. " +
+            "A retry with the same Idempotency-Key header gets the original response without re-running the import")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "User(s) added successfully"),
+            @ApiResponse(responseCode = "200", description = "User(s) added successfully",
+                    content = @Content(schema = @Schema(implementation = AddUsersResponse.class))),
+            @ApiResponse(responseCode = "202", description = "Import job accepted (async=true)"),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
             @ApiResponse(responseCode = "409", description = "User with this name or email already exists"),
+            @ApiResponse(responseCode = "413", description = "Too many users in one request"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key was already used for a different request"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<Map<String, Object>> addUsers(@Valid @RequestBody List<User> users){
-        List<String> errors = new ArrayList<>();
-        List<User> addedUsers = new ArrayList<>();
-
-        for (User user:users){
-            if(userRepository.existsByName(user.getName())){
-                errors.add("User with name '" + user.getName() + "' is already registered");
-                continue;
-            }
-            if(userRepository.existsByEmail(user.getEmail())){
-                errors.add("User with email '" + user.getEmail() + "' is already registered");
-                continue;
-            }
-            addedUsers.add(userRepository.save(user));
+    public ResponseEntity<?> addUsers(@Valid @RequestBody List<User> users,
+                                      @RequestParam(defaultValue = "false") boolean async,
+                                      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+                                      HttpServletRequest request){
+        return idempotencyStore.execute("POST /users", ClientIdentity.of(request), idempotencyKey,
+                fingerprint(users, async), () -> addUsers(users, async));
+    }
+
+    private ResponseEntity<?> addUsers(List<User> users, boolean async) {
+        if (async) {
+            return submitJob(UserJob.Type.IMPORT, users);
         }
+        if (batchExecutor.exceedsMaxSize(users.size())) {
+            return batchTooLarge(users.size());
+        }
+        UserBatchEvent event = UserBatchEvent.start("addUsers", users.size());
+        List<RecordStatus> errors = new ArrayList<>();
+        List<User> addedUsers = new ArrayList<>(users.size());
 
-        Map<String, Object> response = new java.util.HashMap<>();
-        response.put("addedUsers", addedUsers);
-        if(!errors.isEmpty()){
-            response.put("errors", errors);
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        List<UserRecordOperations.AddOutcome> outcomes = batchExecutor.mapInChunks(users, recordOperations::add,
+                user -> new UserRecordOperations.AddOutcome(RecordStatus.Code.FAILED, null));
+        for (int index = 0; index < outcomes.size(); index++) {
+            UserRecordOperations.AddOutcome outcome = outcomes.get(index);
+            if (outcome.saved() != null) {
+                addedUsers.add(outcome.saved());
+            } else {
+                errors.add(RecordStatus.ofName(index, outcome.code(), users.get(index).getName()));
+            }
         }
-        return ResponseEntity.ok(response);
+        event.finish(addedUsers.size(), errors.size());
+
+        AddUsersResponse response = new AddUsersResponse(addedUsers, errors);
+        return ResponseEntity.status(errors.isEmpty() ? HttpStatus.OK : HttpStatus.CONFLICT).body(response);
     }
 
-    @GetMapping(value = "/deleteuser/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/deleteuser/{id}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
     @Operation(summary = "Delete user by ID", description = "Deletes a single user based on their ID")
     @ApiResponses(value ={
         @ApiResponse(responseCode = "200", description = "User deleted successfully"),
         @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<Map<String, Object>> getToDeleteUserById(@PathVariable Long id){
-        if(!userRepository.existsById(id)){
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error","User with ID " + id + " not found"));
-        }
-        userRepository.deleteById(id);
-        return ResponseEntity.status(HttpStatus.OK)
-                .body(Map.of("message", "User with ID " + id + " deleted successfully"));
+    public ResponseEntity<RecordStatus> getToDeleteUserById(@PathVariable Long id){
+        return deleteById(id);
     }
 
-    @PostMapping(value = "/deleteuser", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Delete user(s) by ID or Name", description = "Deletes one or more users by ID or Name")
+    @PostMapping(value = "/deleteuser", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Delete user(s) by ID or Name", description = "Deletes one or more users by ID or Name. " +
+            "With ?async=true the deletes run as a background job, see GET /jobs/{id}")
     @ApiResponses(value ={
-            @ApiResponse(responseCode = "200", description = "User(s) deleted successfully"),
-            @ApiResponse(responseCode = "404", description = "One or more users not found")
+            @ApiResponse(responseCode = "200", description = "User(s) deleted successfully",
+                    content = @Content(schema = @Schema(implementation = DeleteUsersResponse.class))),
+            @ApiResponse(responseCode = "202", description = "Delete job accepted (async=true)"),
+            @ApiResponse(responseCode = "404", description = "One or more users not found"),
+            @ApiResponse(responseCode = "413", description = "Too many delete instructions in one request")
     })
-    public ResponseEntity<Map<String, Object>> postToDeleteUserByNameId(@RequestBody List<Map<String, Object>> requestList) {
-        List<String> deleted = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
-
-        for(Map<String, Object> entity : requestList) {
-            if (entity.containsKey("id")) {
-                Long id = Long.valueOf(entity.get("id").toString());
-                if(userRepository.existsById(id)){
-                    userRepository.deleteById(id);
-                    deleted.add("Deleted user with ID: " + id);
-                } else {
-                    errors.add("User with ID " + id + " not found");
-                }
-
-            } else if(entity.containsKey("name")){
-                String name = entity.get("name").toString();
-                List<User> userByName = userRepository.findByName(name);
-                if(!userByName.isEmpty()){
-                    userRepository.deleteAll(userByName);
-                    deleted.add("Deleted user(s) with name '" + name + "'");
-                } else {
-                    errors.add("User(s) '" + name + "' not found");
-                }
-            } else {
-                errors.add("Invalid request object: " + entity);
-            }
+    public ResponseEntity<?> postToDeleteUserByNameId(@RequestBody List<DeleteInstruction> requestList,
+                                                      @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return submitJob(UserJob.Type.DELETE, requestList);
         }
+        if (batchExecutor.exceedsMaxSize(requestList.size())) {
+            return batchTooLarge(requestList.size());
+        }
+        UserBatchEvent event = UserBatchEvent.start("deleteUsers", requestList.size());
+        List<RecordStatus> deleted = new ArrayList<>(requestList.size());
+        List<RecordStatus> errors = new ArrayList<>();
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("deleted", deleted);
-        if(!errors.isEmpty()){
-            response.put("errors", errors);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        List<RecordStatus.Code> codes = batchExecutor.mapInChunks(requestList, recordOperations::delete,
+                instruction -> RecordStatus.Code.FAILED);
+        for (int index = 0; index < codes.size(); index++) {
+            DeleteInstruction instruction = requestList.get(index);
+            RecordStatus.Code code = codes.get(index);
+            RecordStatus status = new RecordStatus(index, code, instruction.id(),
+                    instruction.id() == null ? instruction.name() : null);
+            (code == RecordStatus.Code.DELETED ? deleted : errors).add(status);
         }
-        return ResponseEntity.ok(response);
+        event.finish(deleted.size(), errors.size());
+
+        return deleteResponse(deleted, errors);
     }
 
     @DeleteMapping(value = "/users", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -144,55 +214,57 @@ public class ZebraPrjController {
     @ApiResponses(value ={
             @ApiResponse(responseCode = "200", description = "User deleted successfully"),
             @ApiResponse(responseCode = "400", description = "Param ID is not present in request"),
-            @ApiResponse(responseCode = "404", description = "Users not found")
+            @ApiResponse(responseCode = "404", description = "Users not found"),
+            @ApiResponse(responseCode = "413", description = "Too many ids in request body")
     })
-    public ResponseEntity<Map<String, Object>> deleteUser (
+    public ResponseEntity<?> deleteUser (
             @RequestParam(required = false) Long id,
-            @RequestBody(required = false) List<Map<String, Object>> requestList) {
-        List<String> deleted = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
+            @RequestBody(required = false) List<DeleteInstruction> requestList) {
+        if (requestList != null && batchExecutor.exceedsMaxSize(requestList.size())) {
+            return batchTooLarge(requestList.size());
+        }
+        UserBatchEvent event = UserBatchEvent.start("deleteUser", id != null ? 1 : requestList == null ? 0 : requestList.size());
+        List<RecordStatus> deleted = new ArrayList<>();
+        List<RecordStatus> errors = new ArrayList<>();
 
-        // If query param used
+        // If query param used (no index: not part of a list)
         if(id != null){
-            if(userRepository.existsById(id)){
-                userRepository.deleteById(id);
-                deleted.add("User with ID " + id + " deleted successfully (query)");
-            } else {
-                errors.add("User with ID " + id + " not found (query)");
-            }
+            boolean removed = recordOperations.deleteIfExists(id);
+            (removed ? deleted : errors).add(RecordStatus.ofId(null,
+                    removed ? RecordStatus.Code.DELETED : RecordStatus.Code.NOT_FOUND, id));
         }
 
-        // If ID not given as query param, try extracting from body list
-         if (id == null && requestList != null && !requestList.isEmpty()) {
-            for(Map<String, Object> entity : requestList) {
-                if (entity.containsKey("id")) {
-                     Long userId = Long.valueOf(entity.get("id").toString());
-                    if(userRepository.existsById(userId)){
-                        userRepository.deleteById(userId);
-                        deleted.add("User with ID " + userId + " deleted successfully (body)");
-                    } else {
-                        errors.add("User with ID " + userId + " not found (body)");
-                    }
+        // If ID not given as query param, try extracting from body list; only ids are honoured here
+        if (id == null && requestList != null && !requestList.isEmpty()) {
+            // null for instructions without an id
+            List<RecordStatus.Code> codes = batchExecutor.mapInChunks(requestList, instruction -> {
+                if (instruction.id() == null) {
+                    return null;
+                }
+                return recordOperations.deleteIfExists(instruction.id())
+                        ? RecordStatus.Code.DELETED : RecordStatus.Code.NOT_FOUND;
+            }, instruction -> instruction.id() == null ? null : RecordStatus.Code.FAILED);
+            for (int index = 0; index < codes.size(); index++) {
+                RecordStatus.Code code = codes.get(index);
+                if (code != null) {
+                    (code == RecordStatus.Code.DELETED ? deleted : errors).add(
+                            RecordStatus.ofId(index, code, requestList.get(index).id()));
                 }
             }
         }
+        event.finish(deleted.size(), errors.size());
 
         // If ID not found in query nor body
         if(errors.isEmpty() && deleted.isEmpty()){
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).
-                    body(Map.of("incorrectRequest","Missing 'id' in query param or request body"));
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse("Missing 'id' in query param or request body"));
         }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("deleted", deleted);
-        if(!errors.isEmpty()){
-            response.put("errors", errors);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        }
-        return ResponseEntity.ok(response);
+        return deleteResponse(deleted, errors);
     }
 
-    @GetMapping(value = "/crazy", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/crazy", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
     @Operation(
             summary = "Crazy GET endpoint with body parameters",
             description = "Accepts JSON body on a GET request. If 'name' is provided → returns user(s) with that name. " +
@@ -203,44 +275,147 @@ public class ZebraPrjController {
             @ApiResponse(responseCode = "400", description = "Invalid request body"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<Map<String, Object>> crazyGet(@RequestBody(required = false) Map<String, Object> params) {
-        if (params == null || params.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", "Request body must contain 'name' or 'id'"));
-        }
-
-        Map<String, Object> response = new HashMap<>();
-
+    public ResponseEntity<?> crazyGet(@RequestBody(required = false) LookupRequest request) {
         // Case 1: Find by name
-        if (params.containsKey("name")) {
-            String name = params.get("name").toString();
-            List<User> users = userRepository.findByName(name);
+        if (request != null && request.name() != null) {
+            List<User> users = userReader.findByName(request.name());
             if (users.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(Map.of("error", "No user found with name '" + name + "'"));
+                        .body(RecordStatus.ofName(null, RecordStatus.Code.NOT_FOUND, request.name()));
             }
-            response.put("foundUsers", users);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new FoundUsersResponse(users));
         }
 
         // Case 2: Delete by ID
-        if (params.containsKey("id")) {
-            try {
-                Long id = Long.valueOf(params.get("id").toString());
-                if (!userRepository.existsById(id)) {
-                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                            .body(Map.of("error", "User with ID " + id + " not found"));
+        if (request != null && request.id() != null) {
+            return deleteById(request.id());
+        }
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse("Request body must contain 'name' or 'id'"));
+    }
+
+    // Typed bodies are bound by Jackson before the handler runs, so a value of the wrong type ends up here
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> unreadableBody(HttpMessageNotReadableException e) {
+        if (e.getCause() instanceof InvalidFormatException invalid && !invalid.getPath().isEmpty()) {
+            String field = invalid.getPath().get(invalid.getPath().size() - 1).getFieldName();
+            String problem = Number.class.isAssignableFrom(invalid.getTargetType()) ? "must be a valid number" : "is invalid";
+            return ResponseEntity.badRequest().body(new ErrorResponse("'" + field + "' " + problem));
+        }
+        return ResponseEntity.badRequest().body(new ErrorResponse("Malformed request body"));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponse> idempotencyKeyReused(IdempotencyKeyReuseException e) {
+        return ResponseEntity.unprocessableEntity().body(new ErrorResponse(e.getMessage()));
+    }
+
+    // Canonical bytes of an import request for its Idempotency-Key; ids are assigned by the database, so they
+    // are left out. Every field is length-prefixed, so no two different requests encode the same.
+    private static byte[] fingerprint(List<User> users, boolean async) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeBoolean(async);
+            out.writeInt(users.size());
+            for (User user : users) {
+                writeField(out, user.getName());
+                writeField(out, user.getEmail());
+                writeField(out, user.getBirthdate() == null ? null : user.getBirthdate().toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown by an in-memory stream
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeField(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private ResponseEntity<RecordStatus> deleteById(Long id) {
+        UserBatchEvent event = UserBatchEvent.start("deleteById", 1);
+        boolean removed = recordOperations.deleteIfExists(id);
+        event.finish(removed ? 1 : 0, removed ? 0 : 1);
+        if (!removed) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(RecordStatus.ofId(null, RecordStatus.Code.NOT_FOUND, id));
+        }
+        return ResponseEntity.ok(RecordStatus.ofId(null, RecordStatus.Code.DELETED, id));
+    }
+
+    private static ResponseEntity<DeleteUsersResponse> deleteResponse(List<RecordStatus> deleted, List<RecordStatus> errors) {
+        return ResponseEntity.status(errors.isEmpty() ? HttpStatus.OK : HttpStatus.NOT_FOUND)
+                .body(new DeleteUsersResponse(deleted, errors));
+    }
+
+    private ResponseEntity<?> submitJob(UserJob.Type type, List<?> records) {
+        if (jobService.exceedsMaxSize(records.size())) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new ErrorResponse("Request contains " + records.size() + " records, the maximum is " + jobService.maxSize()));
+        }
+        UUID jobId = jobService.submit(type, records);
+        return ResponseEntity.accepted()
+                .location(URI.create("/jobs/" + jobId))
+                .body(new JobAcceptedResponse(jobId, UserJob.Status.QUEUED));
+    }
+
+    private ResponseEntity<ErrorResponse> batchTooLarge(int size) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(new ErrorResponse("Request contains " + size + " records, the maximum is " + batchExecutor.maxSize()));
+    }
+
+    // First of USERS_FORMATS acceptable at the highest quality; JSON wins for */* and a missing Accept header.
+    // Spring has already answered 406 when none of them is acceptable.
+    private static MediaType usersFormat(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType acceptedType : accepted) {
+            for (MediaType format : USERS_FORMATS) {
+                if (acceptedType.getQualityValue() > 0 && acceptedType.includes(format)) {
+                    return format;
                 }
-                userRepository.deleteById(id);
-                response.put("message", "User with ID " + id + " deleted successfully");
-                return ResponseEntity.ok(response);
-            } catch (NumberFormatException e) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("error", "'id' must be a valid number"));
             }
         }
+        return MediaType.APPLICATION_JSON;
+    }
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body(Map.of("error", "Request body must contain either 'name' or 'id'"));
+    // Every representation of /users has its own ETag, and caches must key on Accept
+    private static <T> ResponseEntity<T> conditionalGet(String ifNoneMatch, String etag, MediaType format, T body) {
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).contentType(format).body(body);
+    }
+
+    // "\"<digest>\"" -> "\"<digest>-<format>\""
+    private static String variantETag(String etag, String format) {
+        return etag.substring(0, etag.length() - 1) + "-" + format + "\"";
+    }
+
+    // If-None-Match may be "*" or a comma separated list of (possibly weak) entity tags
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,11 @@
+package com.example.zebraprj.bulk;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// maxRows caps POST /users/import; it is counted while the body streams into COPY, so an oversized file is
+// cut off as soon as it crosses the limit. Much larger than zebra.batch.max-size: COPY holds no per-row state.
+@ConfigurationProperties("zebra.csv")
+public record CsvImportProperties(
+        @DefaultValue("1000000") long maxRows) {
+}
@@ -0,0 +1,8 @@
+package com.example.zebraprj.bulk;
+
+// The file has more rows than zebra.csv.max-rows; the import is rolled back
+public class CsvImportTooLargeException extends RuntimeException {
+    public CsvImportTooLargeException(long maxRows) {
+        super("CSV contains more than " + maxRows + " rows");
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.zebraprj.bulk;
+
+import com.example.zebraprj.dto.CsvImportResponse;
+import com.example.zebraprj.event.UsersBulkChangedEvent;
+import com.example.zebraprj.repository.UsersLayoutProperties;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+
+// CSV export / import of the users table through COPY, streamed between the HTTP body and the
+// database connection without building entities or row objects.
+// Import goes through a per-transaction staging table and one INSERT ... SELECT ... ON CONFLICT DO NOTHING,
+// so name / email conflicts (with existing users and within the file) are resolved by the database in one pass:
+// the first row for a name or email wins, later ones are counted as conflicts.
+// The partitioned layout has no unique index on users for ON CONFLICT to use; see PARTITIONED_MERGE.
+// Files are capped at zebra.csv.max-rows, counted on the stream: COPY is cancelled once the limit is crossed.
+@Service
+public class UserCsvService {
+    public static final String EXPORT_HEADER = "id,name,email,birthdate";
+    public static final String IMPORT_HEADER = "name,email,birthdate";
+
+    private static final String MERGE = """
+            INSERT INTO users (name, email, birthdate)
+            SELECT name, email, birthdate FROM users_import
+            WHERE btrim(name) <> '' AND btrim(email) <> '' AND birthdate IS NOT NULL
+            ORDER BY line
+            ON CONFLICT DO NOTHING
+            """;
+
+    // Duplicates within the file are dropped first (earliest line per name, then per email), then rows whose
+    // name or email is already in the guard tables. Close to the first-row-wins of MERGE, except that a line
+    // dropped for its email still shadows later lines with the same name.
+    // A concurrent insert of the same key still fails the import with a unique violation from the guard trigger
+    // (DuplicateKeyException, answered with 409 so the client retries).
+    private static final String PARTITIONED_MERGE = """
+            INSERT INTO users (name, email, birthdate)
+            SELECT name, email, birthdate FROM (
+                SELECT DISTINCT ON (email) * FROM (
+                    SELECT DISTINCT ON (name) * FROM users_import
+                    WHERE btrim(name) <> '' AND btrim(email) <> '' AND birthdate IS NOT NULL
+                    ORDER BY name, line
+                ) by_name
+                ORDER BY email, line
+            ) deduplicated
+            WHERE NOT EXISTS (SELECT 1 FROM user_names g WHERE g.name = deduplicated.name)
+              AND NOT EXISTS (SELECT 1 FROM user_emails g WHERE g.email = deduplicated.email)
+            ORDER BY line
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CsvImportProperties properties;
+    private final String merge;
+
+    public UserCsvService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                          UsersLayoutProperties layout, CsvImportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.merge = layout.partitioned() ? PARTITIONED_MERGE : MERGE;
+    }
+
+    // Read-only, so it is served by the replica when one is configured
+    @Transactional(readOnly = true)
+    public long export(OutputStream out) {
+        return copy(copyManager -> copyManager.copyOut(
+                "COPY (SELECT id, name, email, birthdate FROM users ORDER BY id) TO STDOUT WITH (FORMAT csv, HEADER)",
+                out));
+    }
+
+    // Expects IMPORT_HEADER as the first line. A malformed file (wrong column count, bad date) fails the
+    // whole import with a DataAccessException and nothing is inserted; so does a file over the row limit.
+    @Transactional
+    public CsvImportResponse importCsv(InputStream in) {
+        jdbcTemplate.execute("""
+                CREATE TEMP TABLE users_import (
+                    line      BIGINT GENERATED ALWAYS AS IDENTITY,
+                    name      TEXT,
+                    email     TEXT,
+                    birthdate DATE
+                ) ON COMMIT DROP
+                """);
+        long rows = copy(copyManager -> copyManager.copyIn(
+                "COPY users_import (name, email, birthdate) FROM STDIN WITH (FORMAT csv, HEADER)",
+                new RowLimitedInputStream(in, properties.maxRows())));
+
+        // One coarse event for the whole file: caches, read model and change feed reload on commit
+        // instead of handling (and other nodes being notified of) every row
+        long inserted = jdbcTemplate.update(merge);
+        if (inserted > 0) {
+            eventPublisher.publishEvent(new UsersBulkChangedEvent(inserted));
+        }
+        Long invalid = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM users_import
+                WHERE name IS NULL OR btrim(name) = '' OR email IS NULL OR btrim(email) = '' OR birthdate IS NULL
+                """, Long.class);
+
+        return new CsvImportResponse(rows, inserted, rows - inserted - invalid, invalid);
+    }
+
+    private long copy(CopyOperation operation) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return operation.run(new CopyManager(connection.unwrap(BaseConnection.class)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Counts line breaks as COPY pulls the body and fails the read past the header plus maxRows lines.
+    // copyIn cancels the COPY when the read throws, so the oversized rest of the body is never sent to Postgres.
+    // A quoted field spanning lines counts more than once, which only errs on the strict side.
+    private static final class RowLimitedInputStream extends FilterInputStream {
+        private final long maxRows;
+        private long lineBreaks;
+
+        RowLimitedInputStream(InputStream in, long maxRows) {
+            super(in);
+            this.maxRows = maxRows;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == '\n') {
+                countLineBreaks(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            int found = 0;
+            for (int i = offset; i < offset + read; i++) {
+                if (buffer[i] == '\n') {
+                    found++;
+                }
+            }
+            countLineBreaks(found);
+            return read;
+        }
+
+        // The header line plus maxRows data lines may each end with a line break
+        private void countLineBreaks(int found) {
+            lineBreaks += found;
+            if (lineBreaks > maxRows + 1) {
+                throw new CsvImportTooLargeException(maxRows);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CopyOperation {
+        long run(CopyManager copyManager) throws SQLException, IOException;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.zebraprj.cache;
+
+import com.example.zebraprj.model.User;
+import com.example.zebraprj.readmodel.UserReadModel;
+import com.example.zebraprj.repository.UserKeyLookup;
+import com.example.zebraprj.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+// Read-only front for UserRepository lookups used by the list/search endpoints.
+// Served from the in-memory UserReadModel when it is enabled and loaded, without a transaction or connection.
+// Otherwise identical concurrent reads share one query; the returned lists are shared and therefore unmodifiable.
+// Read-only transactions, so they go to the replica when one is configured (see ReadReplicaDataSourceConfig).
+@Component
+public class CoalescingUserReader {
+    private static final String ALL_USERS = "all";
+
+    private final UserRepository userRepository;
+    private final UserKeyLookup keyLookup;
+    private final UserReadModel readModel;
+    private final TransactionTemplate readTransaction;
+    private final SingleFlight<String, List<User>> findAllFlight;
+    private final SingleFlight<String, List<User>> findByNameFlight;
+
+    public CoalescingUserReader(UserRepository userRepository, UserKeyLookup keyLookup, UserReadModel readModel,
+                                PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                UsersTableVersion tableVersion) {
+        this.userRepository = userRepository;
+        this.keyLookup = keyLookup;
+        this.readModel = readModel;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.findAllFlight = new SingleFlight<>(meterRegistry, "users.findAll", tableVersion::current);
+        this.findByNameFlight = new SingleFlight<>(meterRegistry, "users.findByName", tableVersion::current);
+    }
+
+    public List<User> findAll() {
+        if (readModel.isReady()) {
+            return Collections.unmodifiableList(readModel.findAll());
+        }
+        return findAllFlight.execute(ALL_USERS,
+                () -> readTransaction.execute(status -> Collections.unmodifiableList(userRepository.findAll())));
+    }
+
+    public List<User> findByName(String name) {
+        if (readModel.isReady()) {
+            return readModel.findByName(name);
+        }
+        return findByNameFlight.execute(name,
+                () -> readTransaction.execute(status -> Collections.unmodifiableList(keyLookup.findByName(name))));
+    }
+}
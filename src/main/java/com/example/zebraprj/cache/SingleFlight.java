@@ -0,0 +1,74 @@
+package com.example.zebraprj.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Deduplicates concurrent identical loads: the first caller for a key runs the loader,
+// callers arriving while it is still in flight wait for it and share its result.
+// Nothing is cached once the load finishes, so a later call always hits the database again.
+// A caller only joins a load that started at or after the data version it observed on arrival; an older load
+// may have queried before the caller's own write committed, so the caller starts a fresh one instead.
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongSupplier version;
+    private final Counter executed;
+    private final Counter coalesced;
+
+    private record Flight<V>(long version, CompletableFuture<V> result) {
+    }
+
+    public SingleFlight(MeterRegistry meterRegistry, String query, LongSupplier version) {
+        this.version = version;
+        this.executed = Counter.builder("zebra.reads.executed")
+                .description("Reads that were executed against the database")
+                .tag("query", query)
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("zebra.reads.coalesced")
+                .description("Reads that joined an identical in-flight read instead of querying")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        long observed = version.getAsLong();
+        Flight<V> call = new Flight<>(observed, new CompletableFuture<>());
+        // A stale load is left to finish for its own callers, it is just no longer joinable
+        Flight<V> leader = inFlight.compute(key, (k, current) ->
+                current != null && current.version() >= observed ? current : call);
+        if (leader != call) {
+            coalesced.increment();
+            return await(leader.result());
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            call.result().complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            // Followers see the same failure as the leader
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
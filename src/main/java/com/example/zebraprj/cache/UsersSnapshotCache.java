@@ -0,0 +1,149 @@
+package com.example.zebraprj.cache;
+
+import com.example.zebraprj.datasource.ReplicaProperties;
+import com.example.zebraprj.event.UserChangeEvent;
+import com.example.zebraprj.event.UsersBulkChangedEvent;
+import com.example.zebraprj.grpc.GetUsersResponse;
+import com.example.zebraprj.grpc.UserMessage;
+import com.example.zebraprj.invalidation.UsersInvalidatedEvent;
+import com.example.zebraprj.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Pre-serialized copy of the full users list, rebuilt lazily when the table version moves.
+// The version is bumped after every committed write; the ETag is a digest of the JSON,
+// so it stays stable across restarts and nodes as long as the content is the same.
+@Component
+public class UsersSnapshotCache {
+    private static final String SNAPSHOT_KEY = "users";
+
+    private final CoalescingUserReader userReader;
+    private final ObjectMapper objectMapper;
+    private final ReplicaProperties replica;
+    private final TaskScheduler taskScheduler;
+    private final UsersTableVersion tableVersion;
+    private final AtomicBoolean lagInvalidationScheduled = new AtomicBoolean();
+    private volatile Instant lastWrite = Instant.MIN;
+    private final SingleFlight<String, Snapshot> rebuildFlight;
+    private volatile Snapshot snapshot;
+
+    public UsersSnapshotCache(CoalescingUserReader userReader, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              ReplicaProperties replica, TaskScheduler taskScheduler, UsersTableVersion tableVersion) {
+        this.userReader = userReader;
+        this.objectMapper = objectMapper;
+        this.replica = replica;
+        this.taskScheduler = taskScheduler;
+        this.tableVersion = tableVersion;
+        this.rebuildFlight = new SingleFlight<>(meterRegistry, "users.snapshot", tableVersion::current);
+    }
+
+    // json and protobufBytes are the hot REST encodings, kept ready to write; users feeds the other formats
+    public record Snapshot(long version, String etag, List<User> users, byte[] json,
+                           GetUsersResponse protobuf, byte[] protobufBytes) {
+    }
+
+    // Current snapshot, rebuilding it (once for all concurrent callers) if a write happened since the last build
+    public Snapshot current() {
+        Snapshot fresh = peek();
+        if (fresh != null) {
+            return fresh;
+        }
+        return rebuildFlight.execute(SNAPSHOT_KEY, this::rebuild);
+    }
+
+    // Current snapshot if it is still valid, null if the next read has to go to the database
+    public Snapshot peek() {
+        Snapshot cached = snapshot;
+        return cached != null && cached.version() == tableVersion.current() ? cached : null;
+    }
+
+    public long version() {
+        return tableVersion.current();
+    }
+
+    // Invalidates on commit only: a reader that raced the write may have cached pre-commit data,
+    // and bumping afterwards guarantees that entry is never served again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangeEvent event) {
+        invalidateAfterWrite();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersBulkChanged(UsersBulkChangedEvent event) {
+        invalidateAfterWrite();
+    }
+
+    // Another node committed a write (see UserInvalidationListener)
+    @EventListener
+    public void onUsersInvalidated(UsersInvalidatedEvent event) {
+        invalidateAfterWrite();
+    }
+
+    private void invalidateAfterWrite() {
+        invalidate();
+        if (replica.enabled()) {
+            // A rebuild right after the commit may read a replica that has not caught up yet
+            lastWrite = Instant.now();
+            scheduleLagInvalidation();
+        }
+    }
+
+    // At most one pending task, pushed back while writes keep coming
+    private void scheduleLagInvalidation() {
+        if (lagInvalidationScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::invalidateAfterLag, lastWrite.plus(replica.maxLag()));
+        }
+    }
+
+    private void invalidateAfterLag() {
+        invalidate();
+        lagInvalidationScheduled.set(false);
+        // Read after the reset: a write that saw the flag still set is visible here
+        if (lastWrite.plus(replica.maxLag()).isAfter(Instant.now())) {
+            scheduleLagInvalidation(); // A write came in after this task was scheduled
+        }
+    }
+
+    public void invalidate() {
+        tableVersion.increment();
+    }
+
+    private Snapshot rebuild() {
+        // Read the version before querying so a concurrent write always leaves the result stale, never current
+        long version = tableVersion.current();
+        List<User> users = userReader.findAll();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(users);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            GetUsersResponse protobuf = toProtobuf(users);
+            Snapshot rebuilt = new Snapshot(version, etag, users, json, protobuf, protobuf.toByteArray());
+            snapshot = rebuilt;
+            return rebuilt;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GetUsersResponse toProtobuf(List<User> users) {
+        GetUsersResponse.Builder builder = GetUsersResponse.newBuilder();
+        for (User u : users) {
+            builder.addUsers(UserMessage.newBuilder()
+                    .setId(u.getId())
+                    .setName(u.getName())
+                    .setEmail(u.getEmail())
+                    .setBirthdate(u.getBirthdate().toString()));
+        }
+        return builder.build();
+    }
+}
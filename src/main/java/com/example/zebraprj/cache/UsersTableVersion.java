@@ -0,0 +1,21 @@
+package com.example.zebraprj.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bumped once a users write has committed (UsersSnapshotCache listens for the events), before the writer's
+// response goes out. So a caller reading the version after its own write gets at least that write's value,
+// and any load started at that version or later sees the write.
+@Component
+public class UsersTableVersion {
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void increment() {
+        version.incrementAndGet();
+    }
+}
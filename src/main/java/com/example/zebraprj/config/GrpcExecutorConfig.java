@@ -0,0 +1,32 @@
+package com.example.zebraprj.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class GrpcExecutorConfig {
+
+    // Bounded pool for repository work issued by gRPC services. The queue is bounded too,
+    // so overload surfaces as a RejectedExecutionException instead of unbounded latency.
+    @Bean(name = "grpcDbExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService grpcDbExecutor(
+            @Value("${zebra.grpc.db-executor.pool-size:16}") int poolSize,
+            @Value("${zebra.grpc.db-executor.queue-capacity:256}") int queueCapacity) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "grpc-db-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.zebraprj.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// In production nobody reads the API docs during startup, so springdoc beans are made lazy
+// and only created when /v3/api-docs or /swagger-ui.html is first requested
+@Configuration
+@Profile("prod")
+public class LazyDocsConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor lazySpringdocBeans() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String type = definition.getBeanClassName() != null
+                        ? definition.getBeanClassName()
+                        : definition.getFactoryBeanName();
+                if (type != null && type.startsWith("org.springdoc.")) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.zebraprj.config;
+
+import com.example.zebraprj.dto.AddUsersResponse;
+import com.example.zebraprj.dto.CsvImportResponse;
+import com.example.zebraprj.dto.DeleteInstruction;
+import com.example.zebraprj.dto.DeleteUsersResponse;
+import com.example.zebraprj.dto.ErrorResponse;
+import com.example.zebraprj.dto.FoundUsersResponse;
+import com.example.zebraprj.dto.JobAcceptedResponse;
+import com.example.zebraprj.dto.LookupRequest;
+import com.example.zebraprj.dto.RecordStatus;
+import com.example.zebraprj.dto.UserMatch;
+import com.example.zebraprj.dto.UserSearchResponse;
+import com.example.zebraprj.event.UserEntityListener;
+import com.example.zebraprj.feed.UserChange;
+import com.example.zebraprj.grpc.UserGrpcServiceGrpc;
+import com.example.zebraprj.grpc.UserGrpcServiceImpl;
+import com.example.zebraprj.grpc.UserProto;
+import com.example.zebraprj.invalidation.InvalidationMessage;
+import com.example.zebraprj.job.UserJob;
+import com.example.zebraprj.model.User;
+import com.example.zebraprj.model.UserProperty;
+import com.google.protobuf.Descriptors;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+// Reflection hints for the GraalVM native image (Maven profile 'native').
+// Spring AOT covers beans and repositories; this adds what it cannot see on its own.
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Registrar.class)
+public class NativeHintsConfig {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+        private static final MemberCategory[] ALL_MEMBERS = {
+                MemberCategory.DECLARED_FIELDS,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.INVOKE_DECLARED_METHODS
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Protobuf field accessors resolve getters/setters of generated messages and builders reflectively.
+            // Walking the descriptor keeps this in sync with user.proto.
+            for (Descriptors.Descriptor message : UserProto.getDescriptor().getMessageTypes()) {
+                String className = UserProto.class.getPackageName() + "." + message.getName();
+                hints.reflection().registerType(TypeReference.of(className), ALL_MEMBERS);
+                hints.reflection().registerType(TypeReference.of(className + "$Builder"), ALL_MEMBERS);
+            }
+            hints.reflection().registerType(UserGrpcServiceGrpc.class, ALL_MEMBERS);
+            hints.reflection().registerType(UserGrpcServiceImpl.class, ALL_MEMBERS);
+
+            // Hibernate instantiates the entity and calls listener callbacks reflectively,
+            // Spring Data Mongo maps UserProperty through its fields
+            hints.reflection().registerType(User.class, ALL_MEMBERS);
+            hints.reflection().registerType(UserEntityListener.class, ALL_MEMBERS);
+            hints.reflection().registerType(UserProperty.class, ALL_MEMBERS);
+
+            // NOTIFY payloads are (de)serialized with the ObjectMapper outside of any controller signature
+            hints.reflection().registerType(InvalidationMessage.class, ALL_MEMBERS);
+
+            // Most controllers answer ResponseEntity<?>, so AOT cannot infer their bodies; job records are
+            // stored as JSON and SSE events are written without a typed signature either
+            BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+            binding.registerReflectionHints(hints.reflection(),
+                    AddUsersResponse.class, DeleteUsersResponse.class, ErrorResponse.class, RecordStatus.class,
+                    FoundUsersResponse.class, JobAcceptedResponse.class, CsvImportResponse.class,
+                    UserSearchResponse.class, UserMatch.class, DeleteInstruction.class, LookupRequest.class,
+                    UserJob.class, UserChange.class);
+        }
+    }
+}
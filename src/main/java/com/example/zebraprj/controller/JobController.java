@@ -0,0 +1,40 @@
+package com.example.zebraprj.controller;
+
+import com.example.zebraprj.job.UserJob;
+import com.example.zebraprj.job.UserJobService;
+import com.example.zebraprj.web.BinaryMediaTypes;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@Tag(name = "Jobs", description = "Progress of asynchronous user imports and deletes")
+public class JobController {
+
+    private final UserJobService jobService;
+
+    public JobController(UserJobService jobService) {
+        this.jobService = jobService;
+    }
+
+    @GetMapping(value = "/jobs/{id}", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Get job progress",
+            description = "Status, processed/failed record counts, throughput and per-record errors of a job " +
+                    "submitted with POST /users?async=true or POST /deleteuser?async=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job found"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ResponseEntity<UserJob> getJob(@PathVariable UUID id) {
+        return ResponseEntity.of(jobService.find(id));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.zebraprj.controller;
+
+import com.example.zebraprj.feed.ChangeFeedGapException;
+import com.example.zebraprj.feed.ChangeFeedProperties;
+import com.example.zebraprj.feed.UserChange;
+import com.example.zebraprj.feed.UserChangeFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+@RestController
+@Tag(name = "ChangeFeed", description = "Stream of committed user and user property changes")
+public class UserChangeFeedController {
+
+    private final UserChangeFeed changeFeed;
+    private final ChangeFeedProperties properties;
+
+    public UserChangeFeedController(UserChangeFeed changeFeed, ChangeFeedProperties properties) {
+        this.changeFeed = changeFeed;
+        this.properties = properties;
+    }
+
+    @GetMapping(value = "/users/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Watch user changes",
+            description = "Server-Sent Events, one event per change with the sequence number as event id. " +
+                    "Resumes after ?after=<sequence> or the Last-Event-ID header (sent by EventSource on reconnect); " +
+                    "without either only changes from now on are sent")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened"),
+            @ApiResponse(responseCode = "410", description = "Resume position no longer buffered, reload GET /users")
+    })
+    public SseEmitter watchUsers(@RequestParam(required = false) Long after,
+                                 @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.sseTimeout().toMillis());
+        // Overflow just ends the stream: EventSource reconnects with Last-Event-ID and resumes
+        UserChangeFeed.Subscription subscription = changeFeed.subscribe(
+                lastEventId != null ? lastEventId : after,
+                change -> send(emitter, change),
+                emitter::complete);
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    // Explicit JSON content type, the request itself only accepts text/event-stream
+    @ExceptionHandler(ChangeFeedGapException.class)
+    public ResponseEntity<Map<String, Object>> feedGap(ChangeFeedGapException e) {
+        return ResponseEntity.status(HttpStatus.GONE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    private static void send(SseEmitter emitter, UserChange change) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(change.sequence()))
+                    .data(change, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
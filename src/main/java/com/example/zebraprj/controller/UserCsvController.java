@@ -0,0 +1,83 @@
+package com.example.zebraprj.controller;
+
+import com.example.zebraprj.bulk.CsvImportTooLargeException;
+import com.example.zebraprj.bulk.UserCsvService;
+import com.example.zebraprj.dto.CsvImportResponse;
+import com.example.zebraprj.dto.ErrorResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@Tag(name = "UserCsv", description = "Bulk CSV export and import of users via PostgreSQL COPY")
+public class UserCsvController {
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final UserCsvService csvService;
+
+    public UserCsvController(UserCsvService csvService) {
+        this.csvService = csvService;
+    }
+
+    // Written straight to the servlet stream: rows go from the COPY protocol to the client as they arrive
+    @GetMapping(value = "/users/export", produces = TEXT_CSV_VALUE)
+    @Operation(summary = "Export users as CSV",
+            description = "All users ordered by id, header line '" + UserCsvService.EXPORT_HEADER + "'")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "CSV stream")
+    })
+    public void exportUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(TEXT_CSV_VALUE + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"");
+        csvService.export(response.getOutputStream());
+    }
+
+    @PostMapping(value = "/users/import", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import users from CSV",
+            description = "Header line '" + UserCsvService.IMPORT_HEADER + "'. Rows whose name or email is already " +
+                    "taken (or used by an earlier row) are skipped and counted as conflicts; the file is imported in one transaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import committed, counts of inserted / conflicting / invalid rows"),
+            @ApiResponse(responseCode = "400", description = "Malformed CSV, nothing imported"),
+            @ApiResponse(responseCode = "409", description = "A concurrent write took a name or email, nothing imported; retry"),
+            @ApiResponse(responseCode = "411", description = "No Content-Length, which the rate limiter charges the import by"),
+            @ApiResponse(responseCode = "413", description = "More rows than zebra.csv.max-rows, nothing imported")
+    })
+    public CsvImportResponse importUsers(HttpServletRequest request) throws IOException {
+        return csvService.importCsv(request.getInputStream());
+    }
+
+    // COPY rejects a malformed file (bad date, wrong column count) with a data exception
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> malformedCsv(DataIntegrityViolationException e) {
+        return ResponseEntity.badRequest().body(new ErrorResponse("Malformed CSV: " + e.getMostSpecificCause().getMessage()));
+    }
+
+    // A unique violation is not the file's fault: a concurrent insert took a key between the merge's check and
+    // its insert (partitioned layout). Retrying reports that row as a conflict instead.
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<ErrorResponse> concurrentConflict(DuplicateKeyException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ErrorResponse("A name or email in the file was taken concurrently, nothing imported; retry"));
+    }
+
+    @ExceptionHandler(CsvImportTooLargeException.class)
+    public ResponseEntity<ErrorResponse> tooLarge(CsvImportTooLargeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(new ErrorResponse(e.getMessage()));
+    }
+}
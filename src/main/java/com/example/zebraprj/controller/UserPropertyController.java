@@ -1,13 +1,21 @@
 package com.example.zebraprj.controller;
 
+import com.example.zebraprj.dto.ErrorResponse;
 import com.example.zebraprj.model.UserProperty;
+import com.example.zebraprj.profiling.UserBatchEvent;
 import com.example.zebraprj.repository.UserPropertyRepository;
+import com.example.zebraprj.web.BinaryMediaTypes;
+import com.example.zebraprj.writebehind.UserPropertyWriteBuffer;
+import com.example.zebraprj.writebehind.WriteBehindProperties;
+import com.example.zebraprj.writebehind.WriteBufferFullException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -16,6 +24,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @Tag(name = "UserProperty", description = "API for managing user properties stored in MongoDB")
@@ -23,18 +35,26 @@ public class UserPropertyController {
 
     private final UserPropertyRepository userPropertyRepository;
     private final ObjectMapper objectMapper;
+    private final UserPropertyWriteBuffer writeBuffer;
 
-    public UserPropertyController(UserPropertyRepository userPropertyRepository, ObjectMapper objectMapper) {
+    public UserPropertyController(UserPropertyRepository userPropertyRepository, ObjectMapper objectMapper,
+                                  UserPropertyWriteBuffer writeBuffer) {
         this.userPropertyRepository = userPropertyRepository;
         this.objectMapper = objectMapper;
+        this.writeBuffer = writeBuffer;
     }
 
-    @PostMapping(value = "/userproperty", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Add user properties", description = "Add one or more user properties and persist them in MongoDB")
+    @PostMapping(value = "/userproperty", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Add user properties", description = "Add one or more user properties and persist them in MongoDB. " +
+            "With zebra.userproperty.write-behind.enabled the documents are buffered and written in bulk")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User property(ies) added successfully"),
+            @ApiResponse(responseCode = "202", description = "User property(ies) buffered, written shortly (durability on-enqueue)"),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Write-behind buffer is full or the flush is late, " +
+                    "retry after the Retry-After delay")
     })
     public ResponseEntity<?> addUserProperty(@RequestBody Object body) {
         try{
@@ -45,14 +65,63 @@ public class UserPropertyController {
             } else {
                 toSave.add(objectMapper.convertValue(body, UserProperty.class));
             }
+            if (writeBuffer.isActive()) {
+                return addBuffered(toSave);
+            }
+            UserBatchEvent event = UserBatchEvent.start("addUserProperty", toSave.size());
             List<UserProperty> saved = new ArrayList<>();
             for (UserProperty property : toSave) {
                 saved.add(userPropertyRepository.save(property));
             }
+            event.finish(saved.size(), 0);
             return ResponseEntity.ok(saved);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body("Invalid request body");
         }
     }
 
+    // Documents without a userId get their id from Mongo, so they cannot be coalesced and are saved directly.
+    // On 503 the documents buffered before the full one are still written; a retry just upserts them again.
+    // The same holds when the flush does not finish within flush-timeout (Mongo slow or unreachable).
+    private ResponseEntity<?> addBuffered(List<UserProperty> toSave) {
+        UserBatchEvent event = UserBatchEvent.start("addUserProperty", toSave.size());
+        List<UserProperty> accepted = new ArrayList<>(toSave.size());
+        List<CompletableFuture<Void>> writes = new ArrayList<>(toSave.size());
+        try {
+            for (UserProperty property : toSave) {
+                if (property.getUserId() == null) {
+                    accepted.add(userPropertyRepository.save(property));
+                } else {
+                    writes.add(writeBuffer.enqueue(property));
+                    accepted.add(property);
+                }
+            }
+        } catch (WriteBufferFullException e) {
+            event.finish(accepted.size(), toSave.size() - accepted.size());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+
+        if (writeBuffer.durability() == WriteBehindProperties.Durability.ON_ENQUEUE) {
+            event.finish(accepted.size(), 0);
+            return ResponseEntity.accepted().body(accepted);
+        }
+        try {
+            CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new))
+                    .orTimeout(writeBuffer.flushTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            event.finish(0, accepted.size());
+            if (e.getCause() instanceof TimeoutException) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(new ErrorResponse("User properties were not written within " + writeBuffer.flushTimeout()));
+            }
+            return ResponseEntity.internalServerError().body(new ErrorResponse("User properties could not be written"));
+        }
+        event.finish(accepted.size(), 0);
+        return ResponseEntity.ok(accepted);
+    }
+
 }
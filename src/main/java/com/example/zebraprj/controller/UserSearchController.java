@@ -0,0 +1,47 @@
+package com.example.zebraprj.controller;
+
+import com.example.zebraprj.dto.ErrorResponse;
+import com.example.zebraprj.dto.UserSearchResponse;
+import com.example.zebraprj.search.UserSearchService;
+import com.example.zebraprj.web.BinaryMediaTypes;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@Tag(name = "UserSearch", description = "Prefix and fuzzy search over user name and email")
+public class UserSearchController {
+
+    private final UserSearchService searchService;
+
+    public UserSearchController(UserSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping(value = "/users/search", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, BinaryMediaTypes.APPLICATION_SMILE_VALUE})
+    @Operation(summary = "Search users",
+            description = "Case-insensitive prefix and typo-tolerant match of ?q= against name and email. " +
+                    "Prefix matches first, then by similarity; zero-based ?page= and ?size=")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching users"),
+            @ApiResponse(responseCode = "400", description = "Blank or too long query, page or size out of range")
+    })
+    public UserSearchResponse search(@RequestParam String q,
+                                     @RequestParam(defaultValue = "0") int page,
+                                     @RequestParam(required = false) Integer size) {
+        return searchService.search(q, page, size != null ? size : searchService.defaultPageSize());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> invalidSearch(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+    }
+}
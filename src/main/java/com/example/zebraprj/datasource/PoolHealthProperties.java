@@ -0,0 +1,9 @@
+package com.example.zebraprj.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// A pool counts as saturated when threads wait for a connection or active/max reaches saturationThreshold
+@ConfigurationProperties("zebra.datasource.pool-health")
+public record PoolHealthProperties(@DefaultValue("0.9") double saturationThreshold) {
+}
@@ -0,0 +1,56 @@
+package com.example.zebraprj.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Reports every Hikari pool (one, or primary + replica) with its usage. Status is SATURATED rather than DOWN:
+// the application still works, requests just queue for connections, which should alert but not restart it.
+@Component
+public class PoolSaturationHealthIndicator extends AbstractHealthIndicator {
+    static final Status SATURATED = new Status("SATURATED", "Threads are waiting for a database connection");
+
+    private final Map<String, DataSource> dataSources;
+    private final PoolHealthProperties properties;
+
+    public PoolSaturationHealthIndicator(Map<String, DataSource> dataSources, PoolHealthProperties properties) {
+        super("Connection pool health check failed");
+        this.dataSources = dataSources;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        boolean saturated = false;
+        for (DataSource dataSource : dataSources.values()) {
+            if (!(dataSource instanceof HikariDataSource hikari)) {
+                continue; // e.g. the routing proxy in front of the primary/replica pools
+            }
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool == null) {
+                builder.withDetail(hikari.getPoolName(), Map.of("state", "not started"));
+                continue;
+            }
+            int max = hikari.getMaximumPoolSize();
+            int active = pool.getActiveConnections();
+            int waiting = pool.getThreadsAwaitingConnection();
+            saturated |= waiting > 0 || active >= max * properties.saturationThreshold();
+
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("active", active);
+            details.put("idle", pool.getIdleConnections());
+            details.put("total", pool.getTotalConnections());
+            details.put("max", max);
+            details.put("waiting", waiting);
+            builder.withDetail(hikari.getPoolName(), details);
+        }
+        builder.status(saturated ? SATURATED : Status.UP);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.zebraprj.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+// Replaces the auto-configured DataSource with primary + replica pools behind a routing proxy,
+// so JPA, JdbcTemplate and schema.sql all keep using the @Primary bean.
+// Always registered: whether there is a replica is decided when the beans are created, not by a condition.
+// Conditions are evaluated at build time under Spring AOT (the -Pstartup image), so a replica url set at
+// deploy time would otherwise never be picked up. Without zebra.datasource.replica.url the replica bean is
+// absent and every route falls back to the primary pool.
+@Configuration(proxyBeanMethods = false)
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties,
+                                              ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        DataSourceBuilder<HikariDataSource> builder = properties.initializeDataSourceBuilder().type(HikariDataSource.class);
+        // A service connection (e.g. Testcontainers @ServiceConnection) overrides spring.datasource.*
+        connectionDetails.ifAvailable(details -> builder
+                .url(details.getJdbcUrl())
+                .username(details.getUsername())
+                .password(details.getPassword())
+                .driverClassName(details.getDriverClassName()));
+        HikariDataSource dataSource = builder.build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // null registers no replica pool (ObjectProvider / Map<String, DataSource> injection skip it). Pool settings
+    // are bound by hand: @ConfigurationProperties on this method would try to bind onto the absent bean.
+    @Bean
+    public HikariDataSource replicaDataSource(ReplicaProperties replica, Environment environment) {
+        if (!replica.enabled()) {
+            return null;
+        }
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replica.url())
+                .username(replica.username())
+                .password(replica.password())
+                .build();
+        Binder.get(environment).bind("zebra.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true); // A misrouted write fails instead of silently going to the replica
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaProvider) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadReplicaRoutingDataSource.Route.PRIMARY, primary);
+        DataSource replica = replicaProvider.getIfAvailable();
+        if (replica != null) {
+            targets.put(ReadReplicaRoutingDataSource.Route.REPLICA, replica);
+        }
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary); // Also where REPLICA goes when there is none
+        routing.afterPropertiesSet();
+        // StatementScopeDataSource lets gRPC calls bound and cancel their statements (GrpcDbDispatcher)
+        return new LazyConnectionDataSourceProxy(new StatementScopeDataSource(routing));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.zebraprj.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends read-only transactions to the replica and everything else to the primary.
+// Must be wrapped in a LazyConnectionDataSourceProxy: the read-only flag is bound to the thread
+// only after the transaction manager has asked for a connection, so the physical connection
+// has to be fetched on the first statement, not at transaction begin.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
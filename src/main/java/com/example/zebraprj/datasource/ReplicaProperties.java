@@ -0,0 +1,21 @@
+package com.example.zebraprj.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+// Optional read replica; pool settings go under zebra.datasource.replica.hikari.*
+// maxLag is how far the replica may trail the primary, used to re-validate caches after a write
+@ConfigurationProperties("zebra.datasource.replica")
+public record ReplicaProperties(
+        String url,
+        String username,
+        String password,
+        @DefaultValue("2s") Duration maxLag) {
+
+    public boolean enabled() {
+        return StringUtils.hasText(url);
+    }
+}
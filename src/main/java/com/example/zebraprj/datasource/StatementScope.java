@@ -0,0 +1,103 @@
+package com.example.zebraprj.datasource;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Bounds the JDBC statements one unit of work runs (a gRPC call): while the scope is bound to the worker thread,
+// StatementScopeDataSource gives every new statement the time left until the deadline as its query timeout,
+// and cancel() aborts the statements still open. Both go through pgjdbc's cancel request on a separate socket,
+// so they stop a query the worker is blocked on, which interrupting the thread does not.
+public final class StatementScope {
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+    // Closed statements are dropped from the set once it grows past this, so long calls do not pile them up
+    private static final int PRUNE_THRESHOLD = 32;
+
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+    private final Set<Statement> open = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    private StatementScope(long timeoutNanos, boolean hasDeadline) {
+        this.deadlineNanos = System.nanoTime() + timeoutNanos;
+        this.hasDeadline = hasDeadline;
+    }
+
+    public static StatementScope withTimeout(long timeout, TimeUnit unit) {
+        return new StatementScope(unit.toNanos(timeout), true);
+    }
+
+    public static StatementScope withoutTimeout() {
+        return new StatementScope(0, false);
+    }
+
+    static StatementScope current() {
+        return CURRENT.get();
+    }
+
+    // Binds the scope to the calling thread until the returned handle is closed
+    public Binding bind() {
+        StatementScope previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    // Cancels the open statements and every statement created afterwards; safe to call from any thread
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : open) {
+            cancelQuietly(statement);
+        }
+    }
+
+    void register(Statement statement) throws SQLException {
+        if (hasDeadline) {
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                statement.close();
+                throw new SQLTimeoutException("Deadline exceeded before the statement was created");
+            }
+            // JDBC timeouts are whole seconds; rounding up keeps a short deadline from becoming "no timeout" (0)
+            statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE,
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + 999_999_999))));
+        }
+        if (open.size() >= PRUNE_THRESHOLD) {
+            open.removeIf(StatementScope::isClosed);
+        }
+        open.add(statement);
+        if (cancelled) {
+            cancelQuietly(statement); // cancel() ran while the statement was being created
+        }
+    }
+
+    private static boolean isClosed(Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void cancelQuietly(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            // Closed meanwhile or nothing running, either way there is nothing left to stop
+        }
+    }
+
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.zebraprj.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Hands out connections that register their statements with the StatementScope bound to the thread, if any.
+// Without a scope (REST requests, jobs, schedulers) the pooled connection is returned as is.
+public class StatementScopeDataSource extends DelegatingDataSource {
+
+    public StatementScopeDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return scoped(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return scoped(super.getConnection(username, password));
+    }
+
+    private static Connection scoped(Connection connection) {
+        StatementScope scope = StatementScope.current();
+        if (scope == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(StatementScopeDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ScopedConnection(connection, scope));
+    }
+
+    private record ScopedConnection(Connection target, StatementScope scope) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            // createStatement, prepareStatement and prepareCall
+            if (result instanceof Statement statement) {
+                scope.register(statement);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.zebraprj.dto;
+
+import com.example.zebraprj.model.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record AddUsersResponse(List<User> addedUsers,
+                               @JsonInclude(JsonInclude.Include.NON_EMPTY) List<RecordStatus> errors) {
+}
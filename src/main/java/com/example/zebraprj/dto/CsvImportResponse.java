@@ -0,0 +1,6 @@
+package com.example.zebraprj.dto;
+
+// rows = data lines in the file; every row is either inserted, a conflict (name or email already taken,
+// also by an earlier row of the same file) or invalid (blank name / email, missing birthdate)
+public record CsvImportResponse(long rows, long inserted, long conflicts, long invalid) {
+}
@@ -0,0 +1,5 @@
+package com.example.zebraprj.dto;
+
+// Element of POST /deleteuser and DELETE /users bodies: {"id": 5} or {"name": "Alice Smith"}, id wins if both are set
+public record DeleteInstruction(Long id, String name) {
+}
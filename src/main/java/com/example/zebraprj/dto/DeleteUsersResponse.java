@@ -0,0 +1,9 @@
+package com.example.zebraprj.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record DeleteUsersResponse(List<RecordStatus> deleted,
+                                  @JsonInclude(JsonInclude.Include.NON_EMPTY) List<RecordStatus> errors) {
+}
@@ -0,0 +1,5 @@
+package com.example.zebraprj.dto;
+
+// Request-level failure (400, 404, 413, 429, 503); per-record failures are RecordStatus entries
+public record ErrorResponse(String error) {
+}
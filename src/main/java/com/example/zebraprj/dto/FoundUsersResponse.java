@@ -0,0 +1,8 @@
+package com.example.zebraprj.dto;
+
+import com.example.zebraprj.model.User;
+
+import java.util.List;
+
+public record FoundUsersResponse(List<User> foundUsers) {
+}
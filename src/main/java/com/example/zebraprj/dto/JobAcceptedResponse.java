@@ -0,0 +1,8 @@
+package com.example.zebraprj.dto;
+
+import com.example.zebraprj.job.UserJob;
+
+import java.util.UUID;
+
+public record JobAcceptedResponse(UUID jobId, UserJob.Status status) {
+}
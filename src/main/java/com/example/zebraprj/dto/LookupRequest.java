@@ -0,0 +1,5 @@
+package com.example.zebraprj.dto;
+
+// Body of GET /crazy: {"name": ...} looks users up, {"id": ...} deletes one
+public record LookupRequest(String name, Long id) {
+}
@@ -0,0 +1,27 @@
+package com.example.zebraprj.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Outcome for one record of a request. index is the record's position in a list body (null for single-record
+// endpoints); id / name echo the key the record was addressed by.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecordStatus(Integer index, Code code, Long id, String name) {
+
+    public enum Code {
+        CREATED,
+        DELETED,
+        NOT_FOUND,
+        NAME_TAKEN,
+        EMAIL_TAKEN,
+        INVALID,
+        FAILED // Rolled back with the rest of its chunk after a database error; safe to retry
+    }
+
+    public static RecordStatus ofId(Integer index, Code code, Long id) {
+        return new RecordStatus(index, code, id, null);
+    }
+
+    public static RecordStatus ofName(Integer index, Code code, String name) {
+        return new RecordStatus(index, code, null, name);
+    }
+}
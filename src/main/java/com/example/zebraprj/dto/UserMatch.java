@@ -0,0 +1,7 @@
+package com.example.zebraprj.dto;
+
+import java.time.LocalDate;
+
+// One search hit; score is the pg_trgm word similarity of the query to the better matching of name / email
+public record UserMatch(Long id, String name, String email, LocalDate birthdate, double score) {
+}
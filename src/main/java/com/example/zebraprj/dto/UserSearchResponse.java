@@ -0,0 +1,7 @@
+package com.example.zebraprj.dto;
+
+import java.util.List;
+
+// hasMore instead of a total count: counting every match would cost as much as the search itself
+public record UserSearchResponse(List<UserMatch> results, int page, int size, boolean hasMore) {
+}
@@ -0,0 +1,14 @@
+package com.example.zebraprj.event;
+
+import java.time.LocalDate;
+
+// Published for every committed write to the users table, see UserEntityListener
+// Carries the full row so in-memory consumers (UserReadModel) never have to query it back
+public record UserChangeEvent(Type type, Long id, String name, String email, LocalDate birthdate) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.zebraprj.event;
+
+import com.example.zebraprj.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// JPA entity listener (resolved as a Spring bean by Hibernate) turning every User write into a UserChangeEvent.
+// Consumers should use @TransactionalEventListener so they only react once the write is committed.
+@Component
+public class UserEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onCreated(User user) {
+        publish(UserChangeEvent.Type.CREATED, user);
+    }
+
+    @PostUpdate
+    public void onUpdated(User user) {
+        publish(UserChangeEvent.Type.UPDATED, user);
+    }
+
+    @PostRemove
+    public void onDeleted(User user) {
+        publish(UserChangeEvent.Type.DELETED, user);
+    }
+
+    private void publish(UserChangeEvent.Type type, User user) {
+        eventPublisher.publishEvent(new UserChangeEvent(type, user.getId(), user.getName(), user.getEmail(),
+                user.getBirthdate()));
+    }
+}
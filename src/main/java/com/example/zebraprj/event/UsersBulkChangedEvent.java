@@ -0,0 +1,6 @@
+package com.example.zebraprj.event;
+
+// Published once for a write that touched many users at once (CSV import) instead of one UserChangeEvent per
+// row. Carries no rows: consumers treat it as "everything may have changed" and reload or invalidate.
+public record UsersBulkChangedEvent(long created) {
+}
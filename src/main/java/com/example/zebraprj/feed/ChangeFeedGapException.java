@@ -0,0 +1,10 @@
+package com.example.zebraprj.feed;
+
+// The requested resume position is no longer (or not yet) in the ring buffer; the client has to
+// reload the full list (GET /users, GetUsers) and watch from now on
+public class ChangeFeedGapException extends RuntimeException {
+
+    public ChangeFeedGapException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.zebraprj.feed;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// capacity is both how far back a client can resume and how far a subscriber may lag before it is dropped
+@ConfigurationProperties("zebra.feed")
+public record ChangeFeedProperties(
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("4") int deliveryThreads,
+        @DefaultValue("30m") Duration sseTimeout) {
+}
@@ -0,0 +1,25 @@
+package com.example.zebraprj.feed;
+
+import com.example.zebraprj.event.UserChangeEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+// Entry of the change feed. id is the user id for USER and the userId of the document for USER_PROPERTY;
+// name and email are only set for USER changes. USERS is a bulk write (CSV import) without per-row detail:
+// clients reload the users list.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record UserChange(long sequence,
+                         Instant timestamp,
+                         Entity entity,
+                         UserChangeEvent.Type type,
+                         String id,
+                         String name,
+                         String email) {
+
+    public enum Entity {
+        USER,
+        USER_PROPERTY,
+        USERS
+    }
+}
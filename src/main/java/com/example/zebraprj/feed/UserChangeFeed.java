@@ -0,0 +1,213 @@
+package com.example.zebraprj.feed;
+
+import com.example.zebraprj.event.UserChangeEvent;
+import com.example.zebraprj.event.UsersBulkChangedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+// In-process change feed: the last `capacity` committed user / user property changes in a ring buffer,
+// numbered by a sequence that increases by one per change. Subscribers get a replay from a sequence
+// followed by live changes, delivered on a small shared pool so a slow client never blocks a writer.
+// Sequences restart with the process; a resume position the feed does not know is reported as a gap.
+@Component
+public class UserChangeFeed implements DisposableBean {
+    private final int capacity;
+    private final UserChange[] ring;
+    private final List<Subscription> subscribers = new ArrayList<>(); // guarded by this
+    private final Executor delivery;
+    private long head; // last assigned sequence, guarded by this
+
+    @Autowired
+    public UserChangeFeed(ChangeFeedProperties properties) {
+        this(properties, newDeliveryPool(properties.deliveryThreads()));
+    }
+
+    UserChangeFeed(ChangeFeedProperties properties, Executor delivery) {
+        this.capacity = properties.capacity();
+        this.ring = new UserChange[capacity];
+        this.delivery = delivery;
+    }
+
+    // After commit only, so subscribers never see a change that was rolled back
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangeEvent event) {
+        append(UserChange.Entity.USER, event.type(), String.valueOf(event.id()), event.name(), event.email());
+    }
+
+    // One entry for the whole import, telling watchers to reload the users list
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersBulkChanged(UsersBulkChangedEvent event) {
+        append(UserChange.Entity.USERS, UserChangeEvent.Type.CREATED, null, null, null);
+    }
+
+    public UserChange append(UserChange.Entity entity, UserChangeEvent.Type type, String id, String name, String email) {
+        synchronized (this) {
+            long sequence = ++head;
+            UserChange change = new UserChange(sequence, Instant.now(), entity, type, id, name, email);
+            ring[slot(sequence)] = change;
+            for (Subscription subscriber : subscribers) {
+                subscriber.offer(change);
+            }
+            return change;
+        }
+    }
+
+    public synchronized long headSequence() {
+        return head;
+    }
+
+    // afterSequence null: live changes only. Otherwise every change after it is replayed first.
+    // onOverflow runs (once) when the subscriber falls more than `capacity` changes behind and is dropped;
+    // it can then resume from the last sequence it received, as long as that is still buffered.
+    public Subscription subscribe(Long afterSequence, Consumer<UserChange> sink, Runnable onOverflow) {
+        return subscribe(afterSequence, sink, () -> true, onOverflow);
+    }
+
+    // For sinks with flow control: delivery pauses while ready is false and continues on Subscription.resume().
+    // Changes queue up meanwhile, so a client that stays behind runs into the same overflow as a slow one.
+    public synchronized Subscription subscribe(Long afterSequence, Consumer<UserChange> sink, BooleanSupplier ready,
+                                               Runnable onOverflow) {
+        Subscription subscription = new Subscription(sink, ready, onOverflow);
+        if (afterSequence != null) {
+            long oldest = Math.max(1, head - capacity + 1);
+            if (afterSequence > head || afterSequence < oldest - 1) {
+                throw new ChangeFeedGapException("Cannot resume after sequence " + afterSequence
+                        + ", the feed holds " + oldest + ".." + head + "; reload the users list and watch from now on");
+            }
+            for (long sequence = afterSequence + 1; sequence <= head; sequence++) {
+                subscription.offer(ring[slot(sequence)]);
+            }
+        }
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    private synchronized void remove(Subscription subscription) {
+        subscribers.remove(subscription);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    private static ExecutorService newDeliveryPool(int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        if (delivery instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    // Per-subscriber queue, drained by at most one delivery thread at a time so the sink is never called concurrently
+    public final class Subscription {
+        private final Consumer<UserChange> sink;
+        private final BooleanSupplier ready;
+        private final Runnable onOverflow;
+        private final Queue<UserChange> pending = new ArrayDeque<>(); // guarded by this
+        private boolean draining; // guarded by this
+        private boolean overflowed; // guarded by this
+        private volatile boolean cancelled;
+
+        private Subscription(Consumer<UserChange> sink, BooleanSupplier ready, Runnable onOverflow) {
+            this.sink = sink;
+            this.ready = ready;
+            this.onOverflow = onOverflow;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            remove(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        // The sink can take changes again; restarts delivery if it was paused with changes pending
+        public void resume() {
+            synchronized (this) {
+                if (draining || cancelled || (pending.isEmpty() && !overflowed)) {
+                    return;
+                }
+                draining = true;
+            }
+            delivery.execute(this::drain);
+        }
+
+        private void offer(UserChange change) {
+            synchronized (this) {
+                if (cancelled || overflowed) {
+                    return;
+                }
+                if (pending.size() >= capacity) {
+                    overflowed = true; // Deliver what is queued, then tell the client to resume
+                } else {
+                    pending.add(change);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            delivery.execute(this::drain);
+        }
+
+        private void drain() {
+            while (!cancelled) {
+                if (!ready.getAsBoolean()) {
+                    synchronized (this) {
+                        draining = false;
+                    }
+                    // A resume() between the check and the reset saw draining still set and did nothing
+                    if (ready.getAsBoolean()) {
+                        resume();
+                    }
+                    return;
+                }
+                UserChange next;
+                synchronized (this) {
+                    next = pending.poll();
+                    if (next == null) {
+                        draining = false;
+                        if (!overflowed) {
+                            return;
+                        }
+                    }
+                }
+                if (next == null) {
+                    cancel();
+                    onOverflow.run();
+                    return;
+                }
+                try {
+                    sink.accept(next);
+                } catch (RuntimeException e) {
+                    cancel(); // Client went away
+                    return;
+                }
+            }
+        }
+    }
+}
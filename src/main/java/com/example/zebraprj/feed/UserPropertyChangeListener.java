@@ -0,0 +1,38 @@
+package com.example.zebraprj.feed;
+
+import com.example.zebraprj.event.UserChangeEvent;
+import com.example.zebraprj.model.UserProperty;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+// Feeds UserProperty writes into the change feed. Mongo writes are not transactional here,
+// so the change is published as soon as the driver acknowledged it.
+@Component
+public class UserPropertyChangeListener extends AbstractMongoEventListener<UserProperty> {
+    private final UserChangeFeed changeFeed;
+
+    public UserPropertyChangeListener(UserChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<UserProperty> event) {
+        // save() is an upsert, the driver does not tell us whether the document existed
+        changeFeed.append(UserChange.Entity.USER_PROPERTY, UserChangeEvent.Type.UPDATED,
+                event.getSource().getUserId(), null, null);
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<UserProperty> event) {
+        // The source is the delete query; only deletes by id identify a single document
+        Document query = event.getSource();
+        Object id = query.get("_id");
+        if (id != null && !(id instanceof Document)) {
+            changeFeed.append(UserChange.Entity.USER_PROPERTY, UserChangeEvent.Type.DELETED,
+                    id.toString(), null, null);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.zebraprj.grpc;
+
+import com.example.zebraprj.datasource.StatementScope;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Runs blocking repository work for gRPC calls on the bounded "grpcDbExecutor" instead of the transport thread
+@Component
+public class GrpcDbDispatcher {
+    private final ExecutorService executor;
+    private final ContextSnapshotFactory contextSnapshots = ContextSnapshotFactory.builder().build();
+
+    public GrpcDbDispatcher(@Qualifier("grpcDbExecutor") ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    // Submits unary work and completes the observer from the executor thread.
+    // A full queue is reported as RESOURCE_EXHAUSTED without touching the database.
+    public <T> void dispatch(StreamObserver<T> responseObserver, Supplier<T> work) {
+        Context context = Context.current();
+        if (context.isCancelled()) {
+            return; // Client already gave up (cancel or expired deadline), nothing to do
+        }
+
+        // The statements of the call get the remaining deadline as their query timeout
+        Deadline deadline = context.getDeadline();
+        StatementScope statements = deadline == null ? StatementScope.withoutTimeout()
+                : StatementScope.withTimeout(deadline.timeRemaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        Future<?> future;
+        try {
+            // gRPC context for cancellation, the captured thread locals (current observation) for tracing
+            future = executor.submit(context.wrap(contextSnapshots.captureAll()
+                    .wrap(() -> complete(responseObserver, work, statements))));
+        } catch (RejectedExecutionException e) {
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription("Server is overloaded, retry later")
+                    .asRuntimeException());
+            return;
+        }
+
+        // Deadline expiry cancels the call context too, so this covers both cancellation paths.
+        // Interrupting drops queued work immediately. A query in flight is cancelled on the server (pgjdbc does not
+        // react to interrupts while it waits on the socket), which also returns its connection to the pool;
+        // the work then stops at the next checkCancelled() or with the statement's error.
+        context.addListener(cancelled -> {
+            statements.cancel();
+            future.cancel(true);
+        }, Runnable::run);
+    }
+
+    // Called between repository round trips so long-running calls stop once the client is gone
+    public static void checkCancelled() {
+        Context context = Context.current();
+        if (context.isCancelled() || Thread.currentThread().isInterrupted()) {
+            throw Status.CANCELLED.withDescription("Call cancelled by client").asRuntimeException();
+        }
+    }
+
+    private <T> void complete(StreamObserver<T> responseObserver, Supplier<T> work, StatementScope statements) {
+        try (StatementScope.Binding ignored = statements.bind()) {
+            checkCancelled();
+            T response = work.get();
+            checkCancelled();
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        } catch (StatusRuntimeException e) {
+            if (!Context.current().isCancelled()) {
+                responseObserver.onError(e);
+            }
+        } catch (DateTimeParseException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
+        } catch (RuntimeException e) {
+            if (!Context.current().isCancelled()) {
+                responseObserver.onError(Status.INTERNAL
+                        .withDescription(e.getMessage())
+                        .withCause(e)
+                        .asRuntimeException());
+            }
+        }
+    }
+}
@@ -1,35 +1,96 @@
 package com.example.zebraprj.grpc;
 
+import com.example.zebraprj.cache.UsersSnapshotCache;
+import com.example.zebraprj.dto.UserSearchResponse;
+import com.example.zebraprj.feed.ChangeFeedGapException;
+import com.example.zebraprj.feed.UserChange;
+import com.example.zebraprj.feed.UserChangeFeed;
+import com.example.zebraprj.idempotency.IdempotencyGrpcInterceptor;
+import com.example.zebraprj.idempotency.IdempotencyKeyReuseException;
+import com.example.zebraprj.idempotency.IdempotencyStore;
 import com.example.zebraprj.model.User;
+import com.example.zebraprj.profiling.UserBatchEvent;
+import com.example.zebraprj.repository.UserColumnQuery;
+import com.example.zebraprj.repository.UserKeyLookup;
 import com.example.zebraprj.repository.UserRepository;
+import com.example.zebraprj.search.UserSearchService;
+import com.example.zebraprj.service.ChunkedBatchExecutor;
+import com.google.protobuf.FieldMask;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 // gRPC service implementation responsible for user creation
 @GrpcService // Registers this class as a gRPC service bean
 public class UserGrpcServiceImpl extends  UserGrpcServiceGrpc.UserGrpcServiceImplBase {
     private final UserRepository userRepository; // Repository for DB operations
+    private final UserKeyLookup keyLookup; // Name / email lookups, partition-aware
+    private final UsersSnapshotCache usersSnapshotCache; // Prebuilt GetUsersResponse, shared with REST
+    private final GrpcDbDispatcher dispatcher; // Offloads blocking DB work from the transport thread
+    private final ChunkedBatchExecutor batchExecutor; // Per-chunk transactions for list requests
+    private final TransactionTemplate writeTransaction; // Handlers run on grpc-db threads, so no @Transactional here
+    private final UserChangeFeed changeFeed; // Source of WatchUsers streams
+    private final IdempotencyStore idempotencyStore; // Answers retried AddUser calls without touching the DB
+    private final UserSearchService searchService; // Trigram-indexed search, shared with REST
+    private final UserColumnQuery columnQuery; // Column-selective fetch by ids for GetUsersByIds
 
-    public UserGrpcServiceImpl(UserRepository userRepository) {
+    public UserGrpcServiceImpl(UserRepository userRepository, UsersSnapshotCache usersSnapshotCache,
+                               GrpcDbDispatcher dispatcher, ChunkedBatchExecutor batchExecutor,
+                               PlatformTransactionManager transactionManager, UserChangeFeed changeFeed,
+                               IdempotencyStore idempotencyStore, UserSearchService searchService,
+                               UserKeyLookup keyLookup, UserColumnQuery columnQuery) {
         this.userRepository = userRepository; // Inject repository through constructor
+        this.keyLookup = keyLookup;
+        this.usersSnapshotCache = usersSnapshotCache;
+        this.dispatcher = dispatcher;
+        this.batchExecutor = batchExecutor;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.changeFeed = changeFeed;
+        this.idempotencyStore = idempotencyStore;
+        this.searchService = searchService;
+        this.columnQuery = columnQuery;
     }
 
     @Override
     public void addUser(AddUserRequest request, StreamObserver<AddUserResponse> responseObserver) {
+        // Uniqueness checks and the insert share one read-write transaction on the primary.
+        // A retry carrying the same idempotency-key metadata gets the first call's response instead.
+        String idempotencyKey = IdempotencyGrpcInterceptor.KEY.get();
+        String client = IdempotencyGrpcInterceptor.CLIENT.get();
+        dispatcher.dispatch(responseObserver, () -> {
+            try {
+                return idempotencyStore.execute("AddUser", client, idempotencyKey, request.toByteArray(),
+                        () -> writeTransaction.execute(status -> addUser(request)));
+            } catch (IdempotencyKeyReuseException e) {
+                throw Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+            }
+        });
+    }
+
+    private AddUserResponse addUser(AddUserRequest request) {
         List<String> errors = new ArrayList<>();  // Collect validation errors
 
         // Validate unique name
-        if (userRepository.existsByName(request.getUser().getName())) {
+        if (keyLookup.nameExists(request.getUser().getName())) {
             errors.add("User with name " + request.getUser().getName() + "already exists");
         }
 
         // Validate unique email
-        if (userRepository.existsByEmail(request.getUser().getEmail())) {
+        GrpcDbDispatcher.checkCancelled();
+        if (keyLookup.emailExists(request.getUser().getEmail())) {
             errors.add("User with email " + request.getUser().getEmail() + " already exists");
         }
 
@@ -37,9 +98,7 @@ public class UserGrpcServiceImpl extends  UserGrpcServiceGrpc.UserGrpcServiceImp
 
         if (!errors.isEmpty()) {
             responseBuilder.addAllError(errors); // Return validation errors
-            responseObserver.onNext(responseBuilder.build()); // Return validation errors
-            responseObserver.onCompleted(); // Complete stream
-            return;
+            return responseBuilder.build();
         }
 
         // Map request to entity
@@ -48,6 +107,7 @@ public class UserGrpcServiceImpl extends  UserGrpcServiceGrpc.UserGrpcServiceImp
         user.setEmail(request.getUser().getEmail());
         user.setBirthdate(LocalDate.parse(request.getUser().getBirthdate())); // Parse birthdate
 
+        GrpcDbDispatcher.checkCancelled();
         User saved = userRepository.save(user); // Persist new
 
         // Map entity back to protobuf message
@@ -59,64 +119,218 @@ public class UserGrpcServiceImpl extends  UserGrpcServiceGrpc.UserGrpcServiceImp
                 .build();
 
         responseBuilder.setUser(responseUser); // Attach user to response
-        responseObserver.onNext(responseBuilder.build()); // Send successful response
-        responseObserver.onCompleted(); // Finish call
+        return responseBuilder.build();
     }
 
     @Override
     public void getUsers(GetUsersRequest request, StreamObserver<GetUsersResponse> responseObserver) {
-        List<UserMessage> users = userRepository.findAll().stream()
-                .map(u -> UserMessage.newBuilder()
-                        .setId(u.getId())
-                        .setName(u.getName())
-                        .setEmail(u.getEmail())
-                        .setBirthdate(u.getBirthdate().toString())
-                        .build())
-                .toList();
-
-        GetUsersResponse response = GetUsersResponse.newBuilder()
-                .addAllUsers(users)
-                .build();
-
-        responseObserver.onNext(response);
-        responseObserver.onCompleted();
+        // A rebuild reads in a read-only transaction (CoalescingUserReader), i.e. from the replica if configured
+        // Unchanged table: answer straight from the snapshot without going through the DB executor
+        UsersSnapshotCache.Snapshot fresh = usersSnapshotCache.peek();
+        if (fresh != null) {
+            responseObserver.onNext(fresh.protobuf());
+            responseObserver.onCompleted();
+            return;
+        }
+        dispatcher.dispatch(responseObserver, () -> usersSnapshotCache.current().protobuf());
     }
 
     @Override
     public void deleteUserByNameId (DeleteUserByNameIDRequest request,
                                     StreamObserver<DeleteUserByNameIDResponse> responseObserver){
+        dispatcher.dispatch(responseObserver, () -> deleteUserByNameId(request));
+    }
+
+    // One delete instruction's result, reported in either the delete or the error list
+    private record DeleteOutcome(boolean deleted, String message) {
+    }
+
+    private DeleteUserByNameIDResponse deleteUserByNameId(DeleteUserByNameIDRequest request) {
         List<String> errors = new ArrayList<>();
         List<String> deleted =  new ArrayList<>();
 
-        for(DeleteUserRequest entity : request.getRequestList()){
+        if (batchExecutor.exceedsMaxSize(request.getRequestCount())) {
+            throw Status.INVALID_ARGUMENT
+                    .withDescription("Request contains " + request.getRequestCount()
+                            + " delete instructions, the maximum is " + batchExecutor.maxSize())
+                    .asRuntimeException();
+        }
+
+        UserBatchEvent event = UserBatchEvent.start("grpcDeleteUserByNameId", request.getRequestCount());
+        List<DeleteOutcome> outcomes = batchExecutor.mapInChunks(request.getRequestList(), entity -> {
+            GrpcDbDispatcher.checkCancelled(); // Stop deleting once the client is gone
             if(entity.getId() != 0) {
                 long id = entity.getId();
                 if (userRepository.existsById(id)) {
                     userRepository.deleteById(id);
-                    deleted.add("Deleted user with ID: " + id);
-                } else {
-                    errors.add("User with ID " + id + " does not exist");
+                    return new DeleteOutcome(true, "Deleted user with ID: " + id);
                 }
+                return new DeleteOutcome(false, "User with ID " + id + " does not exist");
             } else if (!entity.getName().isEmpty()) {
                 String name = entity.getName();
-                List<User> usersByName = userRepository.findByName(name);
+                List<User> usersByName = keyLookup.findByName(name);
                 if(!usersByName.isEmpty()){
                     userRepository.deleteAll(usersByName);
-                    deleted.add("Deleted user with name: " + name);
-                } else  {
-                    errors.add("User(s) with name '" + name + "' do(es) not exist");
+                    return new DeleteOutcome(true, "Deleted user with name: " + name);
                 }
-            } else {
-                errors.add("Invalid request object " + entity);
+                return new DeleteOutcome(false, "User(s) with name '" + name + "' do(es) not exist");
             }
-        }
+            return new DeleteOutcome(false, "Invalid request object " + entity);
+        }, entity -> new DeleteOutcome(false, "Failed to delete " + (entity.getId() != 0
+                ? "user with ID " + entity.getId() : "user(s) with name '" + entity.getName() + "'")
+                + ", rolled back; retry"));
+        outcomes.forEach(outcome -> (outcome.deleted() ? deleted : errors).add(outcome.message()));
+        event.finish(deleted.size(), errors.size());
         DeleteUserByNameIDResponse.Builder responseBuilder = DeleteUserByNameIDResponse.newBuilder()
                 .addAllDelete(deleted);
         if (!errors.isEmpty()) {
             responseBuilder.addAllError(errors);
         }
+        return responseBuilder.build();
+    }
+
+    @Override
+    public void watchUsers(WatchUsersRequest request, StreamObserver<UserChangeMessage> responseObserver) {
+        // No DB work: changes are pushed from the feed's delivery threads, never from the transport thread
+        ServerCallStreamObserver<UserChangeMessage> call = (ServerCallStreamObserver<UserChangeMessage>) responseObserver;
+        AtomicReference<UserChangeFeed.Subscription> subscription = new AtomicReference<>();
+        call.setOnCancelHandler(() -> {
+            UserChangeFeed.Subscription active = subscription.get();
+            if (active != null) {
+                active.cancel();
+            }
+        });
+        // Flow control: changes are only written while the transport can take them; otherwise they stay queued
+        // in the subscription, whose capacity limit then ends a client that does not keep up
+        call.setOnReadyHandler(() -> {
+            UserChangeFeed.Subscription active = subscription.get();
+            if (active != null) {
+                active.resume();
+            }
+        });
+
+        try {
+            subscription.set(changeFeed.subscribe(
+                    request.hasAfterSequence() ? request.getAfterSequence() : null,
+                    change -> call.onNext(toMessage(change)),
+                    call::isReady,
+                    () -> call.onError(Status.RESOURCE_EXHAUSTED
+                            .withDescription("Watcher fell too far behind, resume from the last received sequence")
+                            .asRuntimeException())));
+        } catch (ChangeFeedGapException e) {
+            call.onError(Status.OUT_OF_RANGE.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+        if (call.isCancelled()) {
+            subscription.get().cancel(); // Cancelled before the subscription was visible to the cancel handler
+        } else {
+            subscription.get().resume(); // Same for a ready signal that arrived during the replay
+        }
+    }
 
-        responseObserver.onNext(responseBuilder.build());
-        responseObserver.onCompleted();
+    @Override
+    public void searchUsers(SearchUsersRequest request, StreamObserver<SearchUsersResponse> responseObserver) {
+        dispatcher.dispatch(responseObserver, () -> searchUsers(request));
+    }
+
+    private SearchUsersResponse searchUsers(SearchUsersRequest request) {
+        UserSearchResponse page;
+        try {
+            int size = request.getSize() > 0 ? request.getSize() : searchService.defaultPageSize();
+            page = searchService.search(request.getQuery(), request.getPage(), size);
+        } catch (IllegalArgumentException e) {
+            throw Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException();
+        }
+        SearchUsersResponse.Builder response = SearchUsersResponse.newBuilder().setHasMore(page.hasMore());
+        page.results().forEach(match -> response.addMatches(UserMatch.newBuilder()
+                .setUser(UserMessage.newBuilder()
+                        .setId(match.id())
+                        .setName(match.name())
+                        .setEmail(match.email())
+                        .setBirthdate(match.birthdate().toString()))
+                .setScore(match.score())));
+        return response.build();
+    }
+
+    @Override
+    public void getUsersByIds(GetUsersByIdsRequest request, StreamObserver<GetUsersByIdsResponse> responseObserver) {
+        dispatcher.dispatch(responseObserver, () -> getUsersByIds(request));
+    }
+
+    private GetUsersByIdsResponse getUsersByIds(GetUsersByIdsRequest request) {
+        if (batchExecutor.exceedsMaxSize(request.getIdsCount())) {
+            throw Status.INVALID_ARGUMENT
+                    .withDescription("Request contains " + request.getIdsCount()
+                            + " ids, the maximum is " + batchExecutor.maxSize())
+                    .asRuntimeException();
+        }
+        Set<UserColumnQuery.Column> columns = maskedColumns(request.getFieldMask());
+        Set<Long> ids = new LinkedHashSet<>(request.getIdsList());
+        Map<Long, User> found = columnQuery.findByIds(ids, columns).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+
+        GetUsersByIdsResponse.Builder response = GetUsersByIdsResponse.newBuilder();
+        for (Long id : ids) {
+            User user = found.get(id);
+            if (user == null) {
+                response.addMissingIds(id);
+                continue;
+            }
+            UserMessage.Builder message = response.addUsersBuilder();
+            if (columns.contains(UserColumnQuery.Column.ID)) {
+                message.setId(user.getId());
+            }
+            if (user.getName() != null) {
+                message.setName(user.getName());
+            }
+            if (user.getEmail() != null) {
+                message.setEmail(user.getEmail());
+            }
+            if (user.getBirthdate() != null) {
+                message.setBirthdate(user.getBirthdate().toString());
+            }
+        }
+        return response.build();
+    }
+
+    // Paths are UserMessage field names; an empty mask means every field
+    private static Set<UserColumnQuery.Column> maskedColumns(FieldMask mask) {
+        if (mask.getPathsCount() == 0) {
+            return EnumSet.allOf(UserColumnQuery.Column.class);
+        }
+        Set<UserColumnQuery.Column> columns = EnumSet.noneOf(UserColumnQuery.Column.class);
+        for (String path : mask.getPathsList()) {
+            UserColumnQuery.Column column = switch (path) {
+                case "id" -> UserColumnQuery.Column.ID;
+                case "name" -> UserColumnQuery.Column.NAME;
+                case "email" -> UserColumnQuery.Column.EMAIL;
+                case "birthdate" -> UserColumnQuery.Column.BIRTHDATE;
+                default -> throw Status.INVALID_ARGUMENT
+                        .withDescription("Unknown field mask path '" + path + "', use id, name, email or birthdate")
+                        .asRuntimeException();
+            };
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    private static UserChangeMessage toMessage(UserChange change) {
+        UserChangeMessage.Builder message = UserChangeMessage.newBuilder()
+                .setSequence(change.sequence())
+                .setTimestamp(change.timestamp().toEpochMilli())
+                .setType(ChangeType.valueOf(change.type().name()));
+        if (change.entity() == UserChange.Entity.USER) {
+            message.setEntity(ChangeEntity.USER)
+                    .setUser(UserMessage.newBuilder()
+                            .setId(Long.parseLong(change.id()))
+                            .setName(change.name())
+                            .setEmail(change.email()));
+        } else if (change.entity() == UserChange.Entity.USERS) {
+            message.setEntity(ChangeEntity.USERS);
+        } else {
+            message.setEntity(ChangeEntity.USER_PROPERTY)
+                    .setUserPropertyId(change.id());
+        }
+        return message.build();
     }
 }
@@ -0,0 +1,31 @@
+package com.example.zebraprj.idempotency;
+
+import com.example.zebraprj.web.ClientIdentity;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+// Copies the "idempotency-key" metadata entry into the call context, where services read it with KEY.get(),
+// together with the calling client (CLIENT.get()) that the key is scoped to
+@GrpcGlobalServerInterceptor
+public class IdempotencyGrpcInterceptor implements ServerInterceptor {
+    public static final Metadata.Key<String> METADATA_KEY =
+            Metadata.Key.of("idempotency-key", Metadata.ASCII_STRING_MARSHALLER);
+    public static final Context.Key<String> KEY = Context.key("idempotency-key");
+    public static final Context.Key<String> CLIENT = Context.key("idempotency-client");
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String key = headers.get(METADATA_KEY);
+        if (key == null) {
+            return next.startCall(call, headers);
+        }
+        Context context = Context.current().withValues(KEY, key, CLIENT, ClientIdentity.of(call));
+        return Contexts.interceptCall(context, call, headers, next);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.zebraprj.idempotency;
+
+// The same Idempotency-Key was sent again with a different request body
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
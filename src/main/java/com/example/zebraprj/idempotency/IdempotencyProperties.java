@@ -0,0 +1,14 @@
+package com.example.zebraprj.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Results of keyed writes are kept for `ttl`, at most `maxEntries` of them (oldest dropped first)
+@ConfigurationProperties("zebra.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("24h") Duration ttl) {
+}
@@ -0,0 +1,137 @@
+package com.example.zebraprj.idempotency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Remembers the result of a write per client and Idempotency-Key, so a retried request gets the
+// original answer without running (or querying) anything. A retry that arrives while the original is
+// still running waits for it. Failures are not remembered: the next retry runs the write again.
+// Bounded by size and TTL; with a fixed TTL insertion order is expiry order, so expired entries are
+// always at the head of the map.
+// Requests are compared by the SHA-256 digest of their canonical bytes, so two different bodies cannot pass for
+// the same one the way colliding 32-bit hash codes could.
+@Component
+public class IdempotencyStore {
+    private final IdempotencyProperties properties;
+    private final LongSupplier clock;
+    private final Counter executed;
+    private final Counter replayed;
+    private final LinkedHashMap<StoreKey, Entry> entries; // guarded by this
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.executed = Counter.builder("zebra.idempotency.executed")
+                .description("Keyed writes that were executed")
+                .register(meterRegistry);
+        this.replayed = Counter.builder("zebra.idempotency.replayed")
+                .description("Keyed writes answered from a stored or in-flight result")
+                .register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StoreKey, Entry> eldest) {
+                return size() > properties.maxEntries();
+            }
+        };
+    }
+
+    // Keys are only unique per client: another client using the same key neither replays nor blocks this one
+    private record StoreKey(String scope, String client, String key) {
+    }
+
+    private record Entry(byte[] fingerprint, long expiresAt, CompletableFuture<Object> result) {
+    }
+
+    // scope separates endpoints sharing a key space ("POST /users", "AddUser"); client is the caller's identity
+    // (see ClientIdentity); request is the canonical encoding of everything that affects the write.
+    // A null key or a disabled store runs the write as usual.
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String client, String key, byte[] request, Supplier<T> write) {
+        if (key == null || key.isBlank() || !properties.enabled()) {
+            return write.get();
+        }
+        StoreKey storeKey = new StoreKey(scope, client, key);
+        byte[] fingerprint = sha256(request);
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        Entry existing;
+        synchronized (this) {
+            long now = clock.getAsLong();
+            evictExpired(now);
+            existing = entries.get(storeKey);
+            if (existing == null) {
+                entries.put(storeKey, new Entry(fingerprint, now + properties.ttl().toNanos(), call));
+            }
+        }
+
+        if (existing != null) {
+            if (!MessageDigest.isEqual(existing.fingerprint(), fingerprint)) {
+                throw new IdempotencyKeyReuseException("Idempotency-Key '" + key
+                        + "' was already used for a different request to " + scope);
+            }
+            replayed.increment();
+            return (T) await(existing.result());
+        }
+
+        executed.increment();
+        try {
+            T result = write.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                entries.remove(storeKey);
+            }
+            call.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() - now > 0) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private static byte[] sha256(byte[] request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(request);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every Java platform", e);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> original) {
+        try {
+            return original.join();
+        } catch (CompletionException e) {
+            // A retry racing the original sees the same failure
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.zebraprj.invalidation;
+
+import java.util.List;
+
+// NOTIFY payload (JSON). node identifies the sender so it can skip its own messages; all = drop everything
+public record InvalidationMessage(String node, List<Long> ids, List<String> names, boolean all) {
+}
@@ -0,0 +1,18 @@
+package com.example.zebraprj.invalidation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Cross-node cache invalidation over Postgres LISTEN/NOTIFY. channel must be a plain SQL identifier.
+// A transaction touching more than maxKeysPerMessage users is announced as "everything changed".
+@ConfigurationProperties("zebra.invalidation")
+public record InvalidationProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("zebra_user_changes") String channel,
+        @DefaultValue("1s") Duration pollTimeout,
+        @DefaultValue("500ms") Duration reconnectMinBackoff,
+        @DefaultValue("30s") Duration reconnectMaxBackoff,
+        @DefaultValue("200") int maxKeysPerMessage) {
+}
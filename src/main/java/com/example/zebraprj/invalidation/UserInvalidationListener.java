@@ -0,0 +1,174 @@
+package com.example.zebraprj.invalidation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+// Receives the other nodes' NOTIFY messages and republishes them as UsersInvalidatedEvent.
+// Uses its own connection outside the pool: LISTEN is per session and the connection is held forever.
+// If the connection drops it reconnects with exponential backoff; notifications sent meanwhile are lost,
+// so every successful (re)connect is followed by an "everything changed" event.
+@Component
+public class UserInvalidationListener implements SmartLifecycle {
+    static final String APPLICATION_NAME = "zebra-invalidation-listener";
+    private static final Logger log = LoggerFactory.getLogger(UserInvalidationListener.class);
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final InvalidationProperties properties;
+    private final UserInvalidationPublisher publisher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final String url;
+    private final Properties connectionProperties = new Properties();
+    private volatile Thread thread;
+    private volatile boolean running;
+    private volatile boolean connected;
+
+    public UserInvalidationListener(InvalidationProperties properties, UserInvalidationPublisher publisher,
+                                    ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper,
+                                    DataSourceProperties dataSourceProperties,
+                                    ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                    MeterRegistry meterRegistry) {
+        if (!IDENTIFIER.matcher(properties.channel()).matches()) {
+            throw new IllegalArgumentException("zebra.invalidation.channel must be a lower-case SQL identifier: "
+                    + properties.channel());
+        }
+        this.properties = properties;
+        this.publisher = publisher;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        // Same primary database as the pool; a service connection (e.g. Testcontainers) overrides spring.datasource.*
+        JdbcConnectionDetails details = connectionDetails.getIfAvailable();
+        this.url = details != null ? details.getJdbcUrl() : dataSourceProperties.determineUrl();
+        setIfPresent("user", details != null ? details.getUsername() : dataSourceProperties.determineUsername());
+        setIfPresent("password", details != null ? details.getPassword() : dataSourceProperties.determinePassword());
+        connectionProperties.setProperty("ApplicationName", APPLICATION_NAME);
+        connectionProperties.setProperty("tcpKeepAlive", "true");
+        Gauge.builder("zebra.invalidation.connected", () -> connected ? 1 : 0)
+                .description("1 while the LISTEN connection for cross-node invalidation is up")
+                .register(meterRegistry);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "invalidation-listen");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread listening = thread;
+        if (listening != null) {
+            listening.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        Duration backoff = properties.reconnectMinBackoff();
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, connectionProperties)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.channel());
+                }
+                connected = true;
+                backoff = properties.reconnectMinBackoff();
+                eventPublisher.publishEvent(UsersInvalidatedEvent.everything()); // May have missed messages while away
+                listen(connection.unwrap(PGConnection.class), connection);
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation listener lost its connection, reconnecting in {}", backoff, e);
+                }
+            } finally {
+                connected = false;
+            }
+            if (!running || !sleep(backoff)) {
+                return;
+            }
+            backoff = backoff.multipliedBy(2).compareTo(properties.reconnectMaxBackoff()) > 0
+                    ? properties.reconnectMaxBackoff() : backoff.multipliedBy(2);
+        }
+    }
+
+    private void listen(PGConnection pgConnection, Connection connection) throws SQLException {
+        int timeoutMillis = (int) properties.pollTimeout().toMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(timeoutMillis);
+            if (notifications == null || notifications.length == 0) {
+                // Idle: make sure the session is still alive, a silently dropped connection delivers nothing
+                if (!connection.isValid(Math.max(1, timeoutMillis / 1000))) {
+                    throw new SQLException("Invalidation listener connection is no longer valid");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                handle(notification.getParameter());
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        InvalidationMessage message;
+        try {
+            message = objectMapper.readValue(payload, InvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed invalidation message {}", payload, e);
+            return;
+        }
+        if (publisher.nodeId().equals(message.node())) {
+            return; // Own write, local caches were already invalidated by the UserChangeEvent
+        }
+        eventPublisher.publishEvent(message.all() ? UsersInvalidatedEvent.everything()
+                : new UsersInvalidatedEvent(new HashSet<>(message.ids()), new HashSet<>(message.names()), false));
+    }
+
+    private void setIfPresent(String key, String value) {
+        if (value != null) {
+            connectionProperties.setProperty(key, value);
+        }
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
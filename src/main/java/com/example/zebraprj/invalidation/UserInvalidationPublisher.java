@@ -0,0 +1,138 @@
+package com.example.zebraprj.invalidation;
+
+import com.example.zebraprj.event.UserChangeEvent;
+import com.example.zebraprj.event.UsersBulkChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Announces committed user writes to the other nodes with NOTIFY. Every UserChangeEvent of a transaction
+// (REST, gRPC, jobs, CSV import) is collected and sent as one message after commit, on a separate thread
+// and autocommit connection, so writers never wait for it and a rolled-back write is never announced.
+// Sending after commit leaves a small window (crash between commit and NOTIFY) in which peers are not told;
+// peers also drop everything whenever their listener reconnects.
+@Component
+public class UserInvalidationPublisher implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(UserInvalidationPublisher.class);
+    private static final int MAX_PAYLOAD_BYTES = 7900; // Postgres limit is 8000 bytes
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-notify");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UserInvalidationPublisher(InvalidationProperties properties, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangeEvent event) {
+        if (properties.enabled()) {
+            collect(pending -> pending.add(event));
+        }
+    }
+
+    // No keys to send: peers drop everything
+    @EventListener
+    public void onUsersBulkChanged(UsersBulkChangedEvent event) {
+        if (properties.enabled()) {
+            collect(PendingChanges::addAll);
+        }
+    }
+
+    private void collect(Consumer<PendingChanges> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges single = new PendingChanges();
+            change.accept(single);
+            single.afterCommit();
+            return;
+        }
+        // Events of the final flush arrive during commit, after beforeCommit callbacks; afterCommit sees them all
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        change.accept(pending);
+    }
+
+    private void send(InvalidationMessage message) {
+        try {
+            String payload = objectMapper.writeValueAsString(message);
+            if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                payload = objectMapper.writeValueAsString(new InvalidationMessage(nodeId, List.of(), List.of(), true));
+            }
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, properties.channel(), payload);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Peers keep serving their caches until the next write or reconnect; nothing to retry here
+            log.warn("Could not send user invalidation", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sender.shutdown();
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+        private final Set<Long> ids = new LinkedHashSet<>();
+        private final Set<String> names = new LinkedHashSet<>();
+        private boolean bulk;
+
+        void add(UserChangeEvent event) {
+            if (ids.size() <= properties.maxKeysPerMessage()) {
+                ids.add(event.id());
+                names.add(event.name());
+            }
+        }
+
+        void addAll() {
+            bulk = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            boolean all = bulk || ids.size() > properties.maxKeysPerMessage();
+            InvalidationMessage message = all
+                    ? new InvalidationMessage(nodeId, List.of(), List.of(), true)
+                    : new InvalidationMessage(nodeId, new ArrayList<>(ids), new ArrayList<>(names), false);
+            sender.execute(() -> send(message));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (TransactionSynchronizationManager.hasResource(UserInvalidationPublisher.this)) {
+                TransactionSynchronizationManager.unbindResource(UserInvalidationPublisher.this);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.zebraprj.invalidation;
+
+import java.util.Set;
+
+// Published locally when another node reports committed user writes (or when this node may have missed some,
+// after the listener reconnects). all = true means any cached user data may be stale.
+public record UsersInvalidatedEvent(Set<Long> ids, Set<String> names, boolean all) {
+
+    public static UsersInvalidatedEvent everything() {
+        return new UsersInvalidatedEvent(Set.of(), Set.of(), true);
+    }
+
+    public boolean affects(Long id, String name) {
+        return all || ids.contains(id) || names.contains(name);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.zebraprj.job;
+
+import java.util.UUID;
+
+// The job was re-claimed by another worker (its lease expired), so this worker's claim token no longer matches
+public class JobLeaseLostException extends RuntimeException {
+    public JobLeaseLostException(UUID jobId) {
+        super("Lost the lease on user job " + jobId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.zebraprj.job;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// workers: jobs processed concurrently by this node, lease: how long a RUNNING job may go
+// without progress before another node (or this one after a restart) takes it over.
+// zebra.jobs.poll-interval (ISO-8601, e.g. PT0.5S) is read directly by UserJobRunner's @Scheduled poller.
+@ConfigurationProperties("zebra.jobs")
+public record JobProperties(
+        @DefaultValue("2") int workers,
+        @DefaultValue("1000000") int maxSize,
+        @DefaultValue("60s") Duration lease,
+        @DefaultValue("1000") int maxStoredErrors) {
+}
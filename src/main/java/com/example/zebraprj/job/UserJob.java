@@ -0,0 +1,47 @@
+package com.example.zebraprj.job;
+
+import com.example.zebraprj.dto.RecordStatus;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+// Progress report returned by GET /jobs/{id}
+public record UserJob(UUID id,
+                      Type type,
+                      Status status,
+                      int totalRecords,
+                      int processedRecords,
+                      int failedRecords,
+                      Double recordsPerSecond,
+                      String failure,
+                      Instant createdAt,
+                      Instant startedAt,
+                      Instant finishedAt,
+                      List<RecordError> errors) {
+
+    public enum Type {
+        IMPORT,  // records: users as accepted by POST /users
+        DELETE   // records: {"id"} / {"name"} instructions as accepted by POST /deleteuser
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    // index is the position of the record in the submitted list; code uses the same values as the sync endpoints
+    public record RecordError(int index, RecordStatus.Code code) {
+    }
+
+    static Double throughput(int processed, Instant startedAt, Instant finishedAt) {
+        if (startedAt == null) {
+            return null;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return processed * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.zebraprj.job;
+
+import com.example.zebraprj.dto.DeleteInstruction;
+import com.example.zebraprj.dto.RecordStatus;
+import com.example.zebraprj.model.User;
+import com.example.zebraprj.service.ChunkedBatchExecutor;
+import com.example.zebraprj.service.UserRecordOperations;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+// Polls user_jobs and runs claimed jobs on a fixed number of background workers.
+// Records are processed in ChunkedBatchExecutor chunks; each chunk commits together with the
+// job's progress, so a job resumed after a restart continues exactly after the last committed chunk.
+@Component
+public class UserJobRunner implements DisposableBean {
+    private static final Logger log = LoggerFactory.getLogger(UserJobRunner.class);
+
+    private final UserJobStore jobStore;
+    private final JobProperties properties;
+    private final ChunkedBatchExecutor batchExecutor;
+    private final UserRecordOperations recordOperations;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService workers;
+    private final Semaphore freeWorkers;
+
+    public UserJobRunner(UserJobStore jobStore, JobProperties properties, ChunkedBatchExecutor batchExecutor,
+                         UserRecordOperations recordOperations, ObjectMapper objectMapper) {
+        this.jobStore = jobStore;
+        this.properties = properties;
+        this.batchExecutor = batchExecutor;
+        this.recordOperations = recordOperations;
+        this.objectMapper = objectMapper;
+        this.workers = Executors.newFixedThreadPool(properties.workers(), runnable -> {
+            Thread thread = new Thread(runnable, "user-job-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.freeWorkers = new Semaphore(properties.workers());
+    }
+
+    // Only claims as many jobs as there are idle workers; the rest stay QUEUED in the table
+    @Scheduled(fixedDelayString = "${zebra.jobs.poll-interval:PT0.5S}")
+    public void poll() {
+        while (freeWorkers.tryAcquire()) {
+            Optional<UserJobStore.ClaimedJob> claimed;
+            try {
+                claimed = jobStore.claimNext(properties.lease());
+            } catch (RuntimeException e) {
+                freeWorkers.release();
+                log.warn("Could not poll user jobs", e);
+                return;
+            }
+            if (claimed.isEmpty()) {
+                freeWorkers.release();
+                return;
+            }
+            UserJobStore.ClaimedJob job = claimed.get();
+            workers.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    freeWorkers.release();
+                }
+            });
+        }
+    }
+
+    private void run(UserJobStore.ClaimedJob job) {
+        try {
+            switch (job.type()) {
+                case IMPORT -> process(job, User.class, user -> recordOperations.add(user).code());
+                case DELETE -> process(job, DeleteInstruction.class, recordOperations::delete);
+            }
+            jobStore.complete(job);
+        } catch (JobLeaseLostException e) {
+            // The new owner resumes after the last chunk committed under either claim
+            log.warn("User job {} was taken over by another worker, abandoning it", job.id());
+        } catch (RuntimeException e) {
+            log.warn("User job {} failed", job.id(), e);
+            if (!jobStore.fail(job, e.getMessage())) {
+                log.warn("User job {} was taken over by another worker, failure not recorded", job.id());
+            }
+        }
+    }
+
+    // Reads the records one chunk at a time, starting after the last committed chunk.
+    // operation returns the record's status; anything but CREATED / DELETED is a failure
+    private <T> void process(UserJobStore.ClaimedJob job, Class<T> recordType,
+                             Function<T, RecordStatus.Code> operation) {
+        int next = job.processedRecords();
+        int[] failed = {job.failedRecords()}; // Total so far, decides which errors are still stored
+        List<T> page;
+        while (!(page = read(job, next, recordType)).isEmpty()) {
+            int pageStart = next;
+            batchExecutor.mapInChunks(page, operation, record -> RecordStatus.Code.FAILED,
+                    (offset, codes) -> recordChunk(job, pageStart + offset, codes, failed));
+            next += page.size();
+        }
+    }
+
+    // Runs in the chunk's transaction; firstIndex is the job-wide index of the chunk's first record
+    private void recordChunk(UserJobStore.ClaimedJob job, int firstIndex, List<RecordStatus.Code> codes,
+                             int[] failed) {
+        List<UserJob.RecordError> chunkErrors = new ArrayList<>();
+        int chunkFailed = 0;
+        for (int i = 0; i < codes.size(); i++) {
+            RecordStatus.Code code = codes.get(i);
+            if (code != RecordStatus.Code.CREATED && code != RecordStatus.Code.DELETED) {
+                // Every failure is counted, but only the first maxStoredErrors codes are kept
+                if (failed[0]++ < properties.maxStoredErrors()) {
+                    chunkErrors.add(new UserJob.RecordError(firstIndex + i, code));
+                }
+                chunkFailed++;
+            }
+        }
+        jobStore.recordChunk(job, codes.size(), chunkFailed, chunkErrors, properties.lease());
+    }
+
+    private <T> List<T> read(UserJobStore.ClaimedJob job, int from, Class<T> recordType) {
+        List<String> json = jobStore.records(job.id(), from, batchExecutor.chunkSize());
+        List<T> records = new ArrayList<>(json.size());
+        try {
+            for (String record : json) {
+                records.add(objectMapper.readValue(record, recordType));
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return records;
+    }
+
+    @Override
+    public void destroy() {
+        // Interrupted jobs keep their committed progress and are picked up again once the lease expires
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.zebraprj.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Entry point for controllers: persists a job with its records; UserJobRunner picks it up
+@Service
+public class UserJobService {
+    private final UserJobStore jobStore;
+    private final JobProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public UserJobService(UserJobStore jobStore, JobProperties properties, ObjectMapper objectMapper) {
+        this.jobStore = jobStore;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    public int maxSize() {
+        return properties.maxSize();
+    }
+
+    public boolean exceedsMaxSize(int size) {
+        return size > properties.maxSize();
+    }
+
+    public UUID submit(UserJob.Type type, List<?> records) {
+        List<String> json = new ArrayList<>(records.size());
+        try {
+            for (Object record : records) {
+                json.add(objectMapper.writeValueAsString(record));
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return jobStore.create(type, json);
+    }
+
+    public Optional<UserJob> find(UUID id) {
+        return jobStore.find(id);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.zebraprj.job;
+
+import com.example.zebraprj.dto.RecordStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// Plain JDBC access to user_jobs / user_job_records / user_job_errors (created by schema.sql, not Hibernate-managed).
+// Records are stored one row each, so a worker reads a job one chunk at a time instead of loading it whole.
+// Claiming uses FOR UPDATE SKIP LOCKED, so several nodes can poll the same table safely.
+// Each claim gets a fresh claim_token and every later update matches on it: a worker whose lease expired and
+// was taken over gets JobLeaseLostException instead of overwriting the new owner's progress.
+@Repository
+public class UserJobStore {
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserJobStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Job handed to a worker: the remaining records start at processedRecords
+    record ClaimedJob(UUID id, UUID claimToken, UserJob.Type type, int processedRecords, int failedRecords) {
+    }
+
+    // records are JSON, one per record; the job only becomes claimable once all of them are committed
+    @Transactional
+    public UUID create(UserJob.Type type, List<String> records) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO user_jobs (id, type, status, total_records) VALUES (?, ?, ?, ?)",
+                id, type.name(), UserJob.Status.QUEUED.name(), records.size());
+        for (int from = 0; from < records.size(); from += INSERT_BATCH_SIZE) {
+            List<String> batch = records.subList(from, Math.min(records.size(), from + INSERT_BATCH_SIZE));
+            int offset = from;
+            jdbcTemplate.batchUpdate("INSERT INTO user_job_records (job_id, record_index, record) VALUES (?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setObject(1, id);
+                            ps.setInt(2, offset + i);
+                            ps.setString(3, batch.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    });
+        }
+        return id;
+    }
+
+    // Records from index from on, at most limit of them, in submission order
+    List<String> records(UUID id, int from, int limit) {
+        return jdbcTemplate.queryForList("""
+                        SELECT record FROM user_job_records
+                        WHERE job_id = ? AND record_index >= ?
+                        ORDER BY record_index
+                        LIMIT ?
+                        """,
+                String.class, id, from, limit);
+    }
+
+    // Oldest queued job, or a running job whose owner stopped renewing its lease (crash / restart)
+    Optional<ClaimedJob> claimNext(Duration lease) {
+        UUID claimToken = UUID.randomUUID();
+        List<ClaimedJob> claimed = jdbcTemplate.query("""
+                        UPDATE user_jobs
+                        SET status = 'RUNNING',
+                            claim_token = ?,
+                            started_at = COALESCE(started_at, now()),
+                            lease_until = now() + (? * interval '1 millisecond')
+                        WHERE id = (
+                            SELECT id FROM user_jobs
+                            WHERE status = 'QUEUED' OR (status = 'RUNNING' AND lease_until < now())
+                            ORDER BY created_at
+                            LIMIT 1
+                            FOR UPDATE SKIP LOCKED)
+                        RETURNING id, type, processed_records, failed_records
+                        """,
+                (rs, rowNum) -> new ClaimedJob(
+                        rs.getObject("id", UUID.class),
+                        claimToken,
+                        UserJob.Type.valueOf(rs.getString("type")),
+                        rs.getInt("processed_records"),
+                        rs.getInt("failed_records")),
+                claimToken, lease.toMillis());
+        return claimed.stream().findFirst();
+    }
+
+    // Called inside the chunk transaction, so progress and data commit (or roll back) together
+    // Throwing on a lost lease rolls the chunk back with it
+    void recordChunk(ClaimedJob job, int processed, int failed, List<UserJob.RecordError> errors, Duration lease) {
+        UUID id = job.id();
+        int updated = jdbcTemplate.update("""
+                        UPDATE user_jobs
+                        SET processed_records = processed_records + ?,
+                            failed_records = failed_records + ?,
+                            lease_until = now() + (? * interval '1 millisecond')
+                        WHERE id = ? AND claim_token = ?
+                        """,
+                processed, failed, lease.toMillis(), id, job.claimToken());
+        if (updated == 0) {
+            throw new JobLeaseLostException(id);
+        }
+        if (!errors.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO user_job_errors (job_id, record_index, message) VALUES (?, ?, ?)",
+                    errors, errors.size(), (ps, error) -> {
+                        ps.setObject(1, id);
+                        ps.setInt(2, error.index());
+                        ps.setString(3, error.code().name());
+                    });
+        }
+    }
+
+    // The records are dropped with it; a failed job keeps them
+    @Transactional
+    void complete(ClaimedJob job) {
+        int updated = jdbcTemplate.update("UPDATE user_jobs SET status = 'COMPLETED', finished_at = now(), "
+                + "lease_until = NULL WHERE id = ? AND claim_token = ?", job.id(), job.claimToken());
+        if (updated == 0) {
+            throw new JobLeaseLostException(job.id());
+        }
+        jdbcTemplate.update("DELETE FROM user_job_records WHERE job_id = ?", job.id());
+    }
+
+    // False if another worker owns the job by now; its outcome is then up to that worker
+    boolean fail(ClaimedJob job, String failure) {
+        return jdbcTemplate.update("UPDATE user_jobs SET status = 'FAILED', finished_at = now(), lease_until = NULL, "
+                + "failure = ? WHERE id = ? AND claim_token = ?", failure, job.id(), job.claimToken()) > 0;
+    }
+
+    public Optional<UserJob> find(UUID id) {
+        List<UserJob.RecordError> errors = jdbcTemplate.query(
+                "SELECT record_index, message FROM user_job_errors WHERE job_id = ? ORDER BY record_index",
+                (rs, rowNum) -> new UserJob.RecordError(rs.getInt("record_index"), RecordStatus.Code.valueOf(rs.getString("message"))),
+                id);
+        return jdbcTemplate.query("""
+                        SELECT id, type, status, total_records, processed_records, failed_records, failure,
+                               created_at, started_at, finished_at
+                        FROM user_jobs WHERE id = ?
+                        """,
+                (rs, rowNum) -> toJob(rs, errors),
+                id).stream().findFirst();
+    }
+
+    private static UserJob toJob(ResultSet rs, List<UserJob.RecordError> errors) throws SQLException {
+        int processed = rs.getInt("processed_records");
+        Instant startedAt = toInstant(rs.getTimestamp("started_at"));
+        Instant finishedAt = toInstant(rs.getTimestamp("finished_at"));
+        return new UserJob(
+                rs.getObject("id", UUID.class),
+                UserJob.Type.valueOf(rs.getString("type")),
+                UserJob.Status.valueOf(rs.getString("status")),
+                rs.getInt("total_records"),
+                processed,
+                rs.getInt("failed_records"),
+                UserJob.throughput(processed, startedAt, finishedAt),
+                rs.getString("failure"),
+                toInstant(rs.getTimestamp("created_at")),
+                startedAt,
+                finishedAt,
+                errors);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
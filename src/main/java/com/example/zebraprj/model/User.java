@@ -1,11 +1,13 @@
 package com.example.zebraprj.model;
 
+import com.example.zebraprj.event.UserEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDate;
 
 @Entity
+@EntityListeners(UserEntityListener.class)
 @Table(name = "users", uniqueConstraints = {
         @UniqueConstraint(columnNames = "name"),
         @UniqueConstraint(columnNames = "email")
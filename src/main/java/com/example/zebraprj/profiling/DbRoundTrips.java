@@ -0,0 +1,19 @@
+package com.example.zebraprj.profiling;
+
+// Per-thread count of statements sent to Postgres (through Hibernate) and commands sent to Mongo.
+// Callers read it before and after a piece of work; the difference is that work's round trips.
+// JdbcTemplate statements (search, CSV, partitioned key lookups) are not counted.
+public final class DbRoundTrips {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private DbRoundTrips() {
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.zebraprj.profiling;
+
+import com.example.zebraprj.dto.ErrorResponse;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Java Flight Recorder on demand (actuator, so behind the management exposure settings):
+//   POST   /actuator/jfr              {"settings": "profile", "maxDuration": "PT2M"}, both optional
+//   GET    /actuator/jfr              recordings started here and their state
+//   POST   /actuator/jfr/{id}         stop a running recording
+//   GET    /actuator/jfr/{id}         download it as a .jfr file (open in JDK Mission Control or `jfr print`)
+//   DELETE /actuator/jfr/{id}         discard it
+// Not exposed by default: a recording contains environment variables and system properties.
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint implements DisposableBean {
+    private final JfrProperties properties;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    public JfrEndpoint(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    public record RecordingInfo(long id, String name, String state, Instant startTime, Instant stopTime,
+                                Duration maxDuration, long size) {
+        static RecordingInfo of(Recording recording) {
+            return new RecordingInfo(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getStopTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+
+    @ReadOperation
+    public List<RecordingInfo> list() {
+        return recordings.values().stream().map(RecordingInfo::of).toList();
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Object> start(@Nullable String settings, @Nullable Duration maxDuration) {
+        recordings.values().removeIf(r -> r.getState() == RecordingState.CLOSED);
+        if (recordings.size() >= properties.maxRecordings()) {
+            return new WebEndpointResponse<>(new ErrorResponse("At most " + properties.maxRecordings()
+                    + " recordings are kept, delete one first"), 409);
+        }
+        Duration duration = maxDuration == null || maxDuration.compareTo(properties.maxDuration()) > 0
+                ? properties.maxDuration() : maxDuration;
+        if (duration.isNegative() || duration.isZero()) {
+            return badRequest("maxDuration must be positive");
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings == null ? properties.defaultSettings() : settings);
+        } catch (IOException | ParseException e) {
+            return badRequest("Unknown settings '" + settings + "', use 'default' or 'profile'");
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName("zebra-" + Instant.now());
+        recording.setDuration(duration);
+        recording.setMaxSize(properties.maxSize().toBytes());
+        // Kept after the duration elapses so it can still be downloaded; closed on delete or shutdown
+        recording.setToDisk(true);
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        return new WebEndpointResponse<>(RecordingInfo.of(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> stop(@Selector long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return notFound(id);
+        }
+        if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+            recording.stop();
+        }
+        return new WebEndpointResponse<>(RecordingInfo.of(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+    // Works on a running recording too: the dump holds everything recorded so far
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Object> download(@Selector long id) throws IOException {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return notFound(id);
+        }
+        Path file = Files.createTempFile("zebra-" + id + "-", ".jfr");
+        try {
+            recording.dump(file);
+            return new WebEndpointResponse<>(deleteOnClose(file), WebEndpointResponse.STATUS_OK);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Object> delete(@Selector long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return notFound(id);
+        }
+        recording.close();
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    @Override
+    public void destroy() {
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    // The temporary dump is removed once the response has been streamed
+    private static Resource deleteOnClose(Path file) throws IOException {
+        InputStream in = new FilterInputStream(Files.newInputStream(file)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            }
+        };
+        return new InputStreamResource(in) {
+            @Override
+            public String getFilename() {
+                return file.getFileName().toString();
+            }
+
+            @Override
+            public long contentLength() {
+                try {
+                    return Files.size(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static WebEndpointResponse<Object> notFound(long id) {
+        return new WebEndpointResponse<>(new ErrorResponse("Recording " + id + " not found"),
+                WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private static WebEndpointResponse<Object> badRequest(String message) {
+        return new WebEndpointResponse<>(new ErrorResponse(message), WebEndpointResponse.STATUS_BAD_REQUEST);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.zebraprj.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+// Limits for recordings started through /actuator/jfr.
+// maxDuration: recordings stop by themselves after this long (a request can ask for less).
+// maxSize: disk space one recording may use before its oldest data is dropped.
+// maxRecordings: recordings kept at the same time, running or waiting to be downloaded.
+// defaultSettings: JFR configuration used when the request names none ("default" or "profile").
+@ConfigurationProperties("zebra.jfr")
+public record JfrProperties(@DefaultValue("10m") Duration maxDuration,
+                            @DefaultValue("256MB") DataSize maxSize,
+                            @DefaultValue("2") int maxRecordings,
+                            @DefaultValue("profile") String defaultSettings) {
+}
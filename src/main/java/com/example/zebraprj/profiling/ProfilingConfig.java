@@ -0,0 +1,35 @@
+package com.example.zebraprj.profiling;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Feeds DbRoundTrips: every statement Hibernate prepares and every Mongo command started on a thread
+@Configuration(proxyBeanMethods = false)
+public class ProfilingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer roundTripCountingStatementInspector() {
+        StatementInspector inspector = sql -> {
+            DbRoundTrips.increment();
+            return sql;
+        };
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    // The synchronous driver calls listeners on the thread that issued the command
+    @Bean
+    public MongoClientSettingsBuilderCustomizer roundTripCountingCommandListener() {
+        return settings -> settings.addCommandListener(new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                DbRoundTrips.increment();
+            }
+        });
+    }
+}
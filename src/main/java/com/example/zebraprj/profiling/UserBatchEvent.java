@@ -0,0 +1,64 @@
+package com.example.zebraprj.profiling;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event for one batch write request. Its duration, thread and trace id line it up with the allocation,
+// lock and I/O events recorded during the same request. Costs nothing beyond the allocation while no
+// recording is running.
+@Name("zebra.UserBatch")
+@Label("User Batch")
+@Category({"ZebraPRJ", "Users"})
+@Description("A batch write: POST /users, the delete endpoints and RPC, POST /userproperty")
+@StackTrace(false)
+public class UserBatchEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Succeeded")
+    int succeeded;
+
+    @Label("Failed")
+    int failed;
+
+    @Label("DB Round Trips")
+    @Description("Hibernate statements and Mongo commands issued by the request thread")
+    long dbRoundTrips;
+
+    @Label("Trace Id")
+    String traceId;
+
+    private transient long roundTripsAtStart;
+
+    public static UserBatchEvent start(String operation, int batchSize) {
+        UserBatchEvent event = new UserBatchEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.batchSize = batchSize;
+            event.roundTripsAtStart = DbRoundTrips.current();
+            event.begin();
+        }
+        return event;
+    }
+
+    public void finish(int succeeded, int failed) {
+        end();
+        if (shouldCommit()) {
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.dbRoundTrips = DbRoundTrips.current() - roundTripsAtStart;
+            SpanContext span = Span.current().getSpanContext();
+            this.traceId = span.isValid() ? span.getTraceId() : null;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.zebraprj.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Shared by RateLimitFilter (REST) and RateLimitGrpcInterceptor (gRPC):
+// a token bucket per client and endpoint, plus a cap on in-flight requests per client
+@Component
+public class ClientRateLimiter {
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Semaphore> inFlight = new ConcurrentHashMap<>();
+
+    public ClientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    public long maxBodySize() {
+        return properties.maxBodySize().toBytes();
+    }
+
+    // Weight of a CSV body of this many bytes, rounded up
+    public int csvWeight(long contentLength) {
+        long bytesPerToken = properties.csvBytesPerToken().toBytes();
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, (contentLength + bytesPerToken - 1) / bytesPerToken));
+    }
+
+    // Both steps at once, for callers that know the weight up front (gRPC: the message is already parsed).
+    // weight = number of records the request will touch; the returned permit must be closed when the request ends
+    public Permit tryAcquire(String clientId, String endpoint, int weight) {
+        Permit slot = tryAcquireSlot(clientId);
+        if (!slot.granted()) {
+            return slot;
+        }
+        Permit tokens = tryConsume(clientId, endpoint, weight);
+        if (!tokens.granted()) {
+            slot.close();
+            return tokens;
+        }
+        return slot;
+    }
+
+    // Step one: a concurrency slot. REST takes it before reading the body, so a client buffers at most
+    // maxConcurrentPerClient bodies at a time. The permit must be closed when the request ends.
+    public Permit tryAcquireSlot(String clientId) {
+        if (!properties.enabled()) {
+            return Permit.GRANTED;
+        }
+        // Acquired inside compute, so evictIdleClients cannot drop the semaphore between lookup and acquire
+        boolean[] acquired = {false};
+        Semaphore slots = inFlight.compute(clientId, (k, existing) -> {
+            Semaphore semaphore = existing != null ? existing : new Semaphore(properties.maxConcurrentPerClient());
+            acquired[0] = semaphore.tryAcquire();
+            return semaphore;
+        });
+        if (!acquired[0]) {
+            return reject("concurrency", "Too many concurrent requests from client '" + clientId + "'", 1);
+        }
+        return new Permit(slots, null, 0);
+    }
+
+    // Step two: weight tokens from the client's bucket for this endpoint. Holds no slot of its own.
+    public Permit tryConsume(String clientId, String endpoint, int weight) {
+        if (!properties.enabled()) {
+            return Permit.GRANTED;
+        }
+        long now = System.nanoTime();
+        boolean[] consumed = {false};
+        TokenBucket bucket = buckets.compute(clientId + " " + endpoint, (k, existing) -> {
+            TokenBucket tokens = existing != null ? existing
+                    : new TokenBucket(properties.burst(), properties.recordsPerSecond(), now);
+            consumed[0] = tokens.tryAcquire(weight, now);
+            return tokens;
+        });
+        if (!consumed[0]) {
+            return reject("rate", "Rate limit exceeded for client '" + clientId + "' on " + endpoint,
+                    Math.max(1, bucket.secondsUntilAvailable(weight, now)));
+        }
+        return Permit.GRANTED;
+    }
+
+    private Permit reject(String reason, String message, long retryAfterSeconds) {
+        meterRegistry.counter("zebra.ratelimit.rejected", "reason", reason).increment();
+        return new Permit(null, message, retryAfterSeconds);
+    }
+
+    // Keeps memory bounded with many distinct clients: forgets buckets that are full again and clients with
+    // nothing in flight. Runs on a schedule, so a flood of new clients costs one sweep per interval, not one per
+    // request. Each entry is removed inside computeIfPresent, atomically with the acquisitions above: a semaphore
+    // is only dropped while nobody holds or is about to take one of its permits.
+    @Scheduled(fixedDelayString = "${zebra.ratelimit.eviction-interval:PT30S}")
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        for (String key : buckets.keySet()) {
+            buckets.computeIfPresent(key, (k, bucket) -> bucket.isFull(now) ? null : bucket);
+        }
+        int idle = properties.maxConcurrentPerClient();
+        for (String clientId : inFlight.keySet()) {
+            inFlight.computeIfPresent(clientId, (k, slots) -> slots.availablePermits() == idle ? null : slots);
+        }
+    }
+
+    int trackedClients() {
+        return inFlight.size();
+    }
+
+    public static final class Permit implements AutoCloseable {
+        static final Permit GRANTED = new Permit(null, null, 0); // Nothing to release
+
+        private final Semaphore slots;
+        private final String rejection;
+        private final long retryAfterSeconds;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore slots, String rejection, long retryAfterSeconds) {
+            this.slots = slots;
+            this.rejection = rejection;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean granted() {
+            return rejection == null;
+        }
+
+        public String rejection() {
+            return rejection;
+        }
+
+        public long retryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        @Override
+        public void close() {
+            if (slots != null && released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        }
+    }
+}
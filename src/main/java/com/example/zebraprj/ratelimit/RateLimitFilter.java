@@ -0,0 +1,233 @@
+package com.example.zebraprj.ratelimit;
+
+import com.example.zebraprj.web.ClientIdentity;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+
+// Rejects over-limit REST requests with 429 before they reach a controller (and the DB pool).
+// JSON array bodies are weighted by their element count, so one 10k-element POST /users
+// costs as much as 10k single-user requests. CSV bodies (POST /users/import) are not read here, they stream
+// into COPY; they are charged by Content-Length.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final ClientRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+
+    // The application's controllers only; actuator registers RequestMappingHandlerMapping subclasses as well
+    public RateLimitFilter(ClientRateLimiter limiter, ObjectMapper objectMapper,
+                           @Qualifier("requestMappingHandlerMapping")
+                           ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limiter.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientId = ClientIdentity.of(request);
+        // The slot comes first: a client over its concurrency limit does not get its body buffered
+        try (ClientRateLimiter.Permit permit = limiter.tryAcquireSlot(clientId)) {
+            if (!permit.granted()) {
+                reject(response, permit);
+                return;
+            }
+            HttpServletRequest effectiveRequest = request;
+            int weight = 1;
+            if (isCsv(request)) {
+                // Without a length a chunked upload could not be charged up front
+                if (request.getContentLengthLong() < 0) {
+                    writeError(response, HttpStatus.LENGTH_REQUIRED, "CSV uploads need a Content-Length");
+                    return;
+                }
+                weight = limiter.csvWeight(request.getContentLengthLong());
+            } else if (hasJsonBody(request)) {
+                byte[] body = readBody(request);
+                if (body == null) {
+                    writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                            "Request body is larger than " + limiter.maxBodySize() + " bytes");
+                    return;
+                }
+                weight = countRecords(body);
+                effectiveRequest = new CachedBodyRequest(request, body);
+            }
+            ClientRateLimiter.Permit tokens = limiter.tryConsume(clientId, endpoint(request), weight);
+            if (!tokens.granted()) {
+                reject(response, tokens);
+                return;
+            }
+            filterChain.doFilter(effectiveRequest, response);
+        }
+    }
+
+    private void reject(HttpServletResponse response, ClientRateLimiter.Permit permit) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(permit.retryAfterSeconds()));
+        writeError(response, HttpStatus.TOO_MANY_REQUESTS, permit.rejection());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of("error", message));
+    }
+
+    // Null if the body exceeds zebra.ratelimit.max-body-size; reads at most one byte past the limit
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        long limit = limiter.maxBodySize();
+        if (request.getContentLengthLong() > limit) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes((int) Math.min(Integer.MAX_VALUE - 8, limit + 1));
+        return body.length > limit ? null : body;
+    }
+
+    // "GET /users", "GET /users/search", "GET /deleteuser/{id}": the pattern of the controller method that will
+    // handle the request, so every route has its own bucket. Requests no controller matches (404s, actuator)
+    // share one key per method, which keeps the number of buckets per client bounded.
+    private String endpoint(HttpServletRequest request) {
+        String pattern = matchedPattern(request);
+        return request.getMethod() + " " + (pattern != null ? pattern : "(unmatched)");
+    }
+
+    // The filter runs before the DispatcherServlet, so the mapping is looked up here as well; it needs the
+    // parsed request path the dispatcher would otherwise set up
+    private String matchedPattern(HttpServletRequest request) {
+        RequestMappingHandlerMapping mapping = handlerMapping.getIfAvailable();
+        if (mapping == null) {
+            return null;
+        }
+        boolean parsed = ServletRequestPathUtils.hasParsedRequestPath(request);
+        if (!parsed) {
+            ServletRequestPathUtils.parseAndCache(request);
+        }
+        try {
+            return mapping.getHandler(request) != null
+                    && request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                    ? pattern : null;
+        } catch (Exception e) {
+            return null; // No acceptable method / media type: the dispatcher answers those with 405 / 415
+        } finally {
+            if (!parsed) {
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+            }
+        }
+    }
+
+    private static boolean hasJsonBody(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.contains("json") && request.getContentLengthLong() != 0;
+    }
+
+    private static boolean isCsv(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.startsWith("text/csv");
+    }
+
+    private int countRecords(byte[] body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return 1;
+            }
+            int count = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                count++;
+                parser.skipChildren();
+            }
+            return Math.max(1, count);
+        } catch (IOException e) {
+            return 1; // Malformed JSON is rejected by the controller with 400 anyway
+        }
+    }
+
+    // Request whose body has been read up front so it can be parsed here and again by the controller
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The whole body is in memory, so it is all available right away: the listener reads while
+                // isReady() (always true) and is told the stream is finished once it has read everything
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    Objects.requireNonNull(readListener, "readListener");
+                    try {
+                        readListener.onDataAvailable();
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.zebraprj.ratelimit;
+
+import com.example.zebraprj.web.ClientIdentity;
+import com.google.protobuf.Message;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+
+import java.util.List;
+
+// gRPC counterpart of RateLimitFilter: checks the limiter when the request message arrives,
+// before it is handed to the service, and answers RESOURCE_EXHAUSTED when over the limit
+@GrpcGlobalServerInterceptor
+public class RateLimitGrpcInterceptor implements ServerInterceptor {
+    private final ClientRateLimiter limiter;
+
+    public RateLimitGrpcInterceptor(ClientRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!limiter.isEnabled()) {
+            return next.startCall(call, headers);
+        }
+        String clientId = ClientIdentity.of(call);
+        String endpoint = call.getMethodDescriptor().getFullMethodName();
+        // Streams (WatchUsers) stay open indefinitely; they take a slot while being set up, not for their lifetime
+        boolean streaming = call.getMethodDescriptor().getType() != MethodDescriptor.MethodType.UNARY;
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(next.startCall(call, headers)) {
+            private ClientRateLimiter.Permit permit;
+
+            @Override
+            public void onMessage(ReqT message) {
+                permit = limiter.tryAcquire(clientId, endpoint, weightOf(message));
+                if (!permit.granted()) {
+                    call.close(Status.RESOURCE_EXHAUSTED.withDescription(permit.rejection()), new Metadata());
+                    return;
+                }
+                super.onMessage(message);
+            }
+
+            @Override
+            public void onHalfClose() {
+                if (permit != null && permit.granted()) {
+                    super.onHalfClose(); // Invokes the service method, which registers the stream
+                    if (streaming) {
+                        release();
+                    }
+                }
+            }
+
+            // Unary calls complete asynchronously (GrpcDbDispatcher), so their slot is held until the call ends
+            @Override
+            public void onComplete() {
+                release();
+                super.onComplete();
+            }
+
+            @Override
+            public void onCancel() {
+                release();
+                super.onCancel();
+            }
+
+            private void release() {
+                if (permit != null) {
+                    permit.close();
+                }
+            }
+        };
+    }
+
+    // Largest repeated field decides the weight, e.g. the delete instructions of DeleteUserByNameIDRequest
+    private static int weightOf(Object message) {
+        int weight = 1;
+        if (message instanceof Message protobuf) {
+            for (Object value : protobuf.getAllFields().values()) {
+                if (value instanceof List<?> list) {
+                    weight = Math.max(weight, list.size());
+                }
+            }
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.zebraprj.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+// Limits are per client (authenticated principal, else remote address) and per endpoint;
+// a request costs one token per record in its list body. JSON bodies are read by the filter to count
+// the records; larger ones than maxBodySize are rejected with 413 before they are buffered.
+// CSV imports stream straight into COPY and are charged by Content-Length instead, one token per csvBytesPerToken.
+@ConfigurationProperties("zebra.ratelimit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2000") long recordsPerSecond,
+        @DefaultValue("5000") long burst,
+        @DefaultValue("16") int maxConcurrentPerClient,
+        @DefaultValue("16MB") DataSize maxBodySize,
+        @DefaultValue("16KB") DataSize csvBytesPerToken) {
+}
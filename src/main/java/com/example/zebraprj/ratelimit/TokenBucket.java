@@ -0,0 +1,48 @@
+package com.example.zebraprj.ratelimit;
+
+// Classic token bucket: refills continuously at ratePerSecond up to capacity
+public class TokenBucket {
+    private final long capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(long capacity, long ratePerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    // Takes the tokens if available; requests larger than the bucket are charged the whole bucket
+    // so they are slowed down instead of being rejected forever
+    public synchronized boolean tryAcquire(long permits, long nowNanos) {
+        refill(nowNanos);
+        double cost = Math.min(permits, capacity);
+        if (tokens < cost) {
+            return false;
+        }
+        tokens -= cost;
+        return true;
+    }
+
+    // Seconds until a request of this size could pass, for Retry-After
+    public synchronized long secondsUntilAvailable(long permits, long nowNanos) {
+        refill(nowNanos);
+        double missing = Math.min(permits, capacity) - tokens;
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano / 1_000_000_000.0);
+    }
+
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.zebraprj.readmodel;
+
+// Open-addressing hash map from a long key to an int slot, stored in two parallel primitive arrays
+// (about 24 bytes per entry at the maximum load factor of 1/2, no Long / Integer / entry objects).
+// Linear probing with backward-shift deletion, so there are no tombstones. Not thread-safe.
+final class LongSlotIndex {
+    private static final int EMPTY = 0; // values hold slot + 1
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongSlotIndex(int expectedSize) {
+        int capacity = tableSize(expectedSize);
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // -1 if absent
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; values[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    void put(long key, int slot) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (values[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] = slot + 1;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = slot + 1;
+        size++;
+    }
+
+    // The removed slot, -1 if absent
+    int remove(long key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; values[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int slot = values[i] - 1;
+                shiftBack(i);
+                size--;
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // Moves later entries of the probe chain into the freed bucket when that is closer to their home bucket
+    private void shiftBack(int free) {
+        int mask = keys.length - 1;
+        int i = free;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == EMPTY) {
+                break;
+            }
+            int home = hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        values[free] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i] - 1);
+            }
+        }
+    }
+
+    // Smallest power of two that keeps expectedSize entries at a load factor of at most 1/2
+    static int tableSize(int expectedSize) {
+        return Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+    }
+
+    // Ids are sequential, so spread them over the table (Murmur3 finalizer)
+    private static int hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.zebraprj.readmodel;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// enabled: load the users table into memory at startup and serve GET /users, /crazy and gRPC GetUsers from it.
+// initialCapacity: users the columns are sized for before the first resize.
+@ConfigurationProperties("zebra.read-model")
+public record ReadModelProperties(@DefaultValue("false") boolean enabled,
+                                  @DefaultValue("1024") int initialCapacity) {
+}
@@ -0,0 +1,114 @@
+package com.example.zebraprj.readmodel;
+
+// Open-addressing hash map from a String key to an int slot, the String counterpart of LongSlotIndex.
+// Keys are the column's own String instances, so the index adds about 12 bytes per entry and no copies.
+// Not thread-safe.
+final class StringSlotIndex {
+    private String[] keys;
+    private int[] values;
+    private int size;
+
+    StringSlotIndex(int expectedSize) {
+        int capacity = LongSlotIndex.tableSize(expectedSize);
+        keys = new String[capacity];
+        values = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    // -1 if absent
+    int get(String key) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return -1;
+    }
+
+    void put(String key, int slot) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != null) {
+            if (keys[i].equals(key)) {
+                keys[i] = key;
+                values[i] = slot;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = slot;
+        size++;
+    }
+
+    // Removes the key only while it still points at slot: after out-of-order changes another
+    // user may already own it (a name handed from one user to another)
+    void remove(String key, int slot) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].equals(key)) {
+                if (values[i] == slot) {
+                    shiftBack(i);
+                    size--;
+                }
+                return;
+            }
+        }
+    }
+
+    // Points the key at a new slot if it pointed at the old one (the column compaction in UserColumns.remove)
+    void move(String key, int from, int to) {
+        int mask = keys.length - 1;
+        for (int i = hash(key) & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (keys[i].equals(key)) {
+                if (values[i] == from) {
+                    values[i] = to;
+                }
+                return;
+            }
+        }
+    }
+
+    private void shiftBack(int free) {
+        int mask = keys.length - 1;
+        int i = free;
+        while (true) {
+            i = (i + 1) & mask;
+            if (keys[i] == null) {
+                break;
+            }
+            int home = hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+        }
+        keys[free] = null;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new String[capacity];
+        values = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.zebraprj.readmodel;
+
+import com.example.zebraprj.model.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Users stored column by column in dense parallel arrays (id, name, email, birthdate as epoch day),
+// with hash indexes from id, name and email to the row's slot. Removal moves the last row into the freed
+// slot, so the columns never have holes. Users are materialized as entities only when read.
+// Not thread-safe, see UserReadModel for the locking.
+final class UserColumns {
+    private long[] ids;
+    private String[] names;
+    private String[] emails;
+    private int[] birthdates;
+    private int size;
+    private final LongSlotIndex byId;
+    private final StringSlotIndex byName;
+    private final StringSlotIndex byEmail;
+
+    UserColumns(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        ids = new long[capacity];
+        names = new String[capacity];
+        emails = new String[capacity];
+        birthdates = new int[capacity];
+        byId = new LongSlotIndex(capacity);
+        byName = new StringSlotIndex(capacity);
+        byEmail = new StringSlotIndex(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Insert or replace the row with this id
+    void upsert(long id, String name, String email, LocalDate birthdate) {
+        int slot = byId.get(id);
+        if (slot < 0) {
+            if (size == ids.length) {
+                grow();
+            }
+            slot = size++;
+            ids[slot] = id;
+            byId.put(id, slot);
+        } else {
+            byName.remove(names[slot], slot);
+            byEmail.remove(emails[slot], slot);
+        }
+        names[slot] = name;
+        emails[slot] = email;
+        birthdates[slot] = (int) birthdate.toEpochDay();
+        byName.put(name, slot);
+        byEmail.put(email, slot);
+    }
+
+    boolean remove(long id) {
+        int slot = byId.remove(id);
+        if (slot < 0) {
+            return false;
+        }
+        byName.remove(names[slot], slot);
+        byEmail.remove(emails[slot], slot);
+        int last = --size;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            names[slot] = names[last];
+            emails[slot] = emails[last];
+            birthdates[slot] = birthdates[last];
+            byId.put(ids[slot], slot);
+            byName.move(names[slot], last, slot);
+            byEmail.move(emails[slot], last, slot);
+        }
+        names[last] = null;
+        emails[last] = null;
+        return true;
+    }
+
+    // Names are unique, so at most one user
+    List<User> findByName(String name) {
+        int slot = byName.get(name);
+        return slot < 0 ? List.of() : List.of(toUser(slot));
+    }
+
+    // Ordered by id, so the snapshot (and its ETag) does not depend on the order writes were applied in
+    List<User> findAll() {
+        long[] sorted = Arrays.copyOf(ids, size);
+        Arrays.sort(sorted);
+        List<User> users = new ArrayList<>(size);
+        for (long id : sorted) {
+            users.add(toUser(byId.get(id)));
+        }
+        return users;
+    }
+
+    private User toUser(int slot) {
+        return new User(ids[slot], names[slot], emails[slot], LocalDate.ofEpochDay(birthdates[slot]));
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+        birthdates = Arrays.copyOf(birthdates, capacity);
+    }
+}
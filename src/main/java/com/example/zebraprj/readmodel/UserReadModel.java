@@ -0,0 +1,249 @@
+package com.example.zebraprj.readmodel;
+
+import com.example.zebraprj.event.UserChangeEvent;
+import com.example.zebraprj.event.UsersBulkChangedEvent;
+import com.example.zebraprj.invalidation.UsersInvalidatedEvent;
+import com.example.zebraprj.model.User;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// The whole users table in memory (UserColumns), loaded from the primary before the servers start and kept
+// current from committed writes: UserChangeEvent for this node, UsersInvalidatedEvent for the other nodes'
+// writes (those rows are re-read) and for "everything changed" (full reload).
+// Changes that commit while rows are being read are recorded and applied again on top of what was read,
+// so a load never overwrites a newer write. Until the first load succeeds (or after a failed one)
+// isReady() is false and readers go to the database.
+@Component
+public class UserReadModel implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(UserReadModel.class);
+    private static final String SELECT_USERS = "SELECT id, name, email, birthdate FROM users";
+    private static final int FETCH_SIZE = 1000;
+
+    private final ReadModelProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate loadTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private UserColumns columns; // guarded by lock
+    private List<UserChangeEvent> changesDuringLoad; // guarded by lock, non-null while a load runs
+    private volatile boolean ready;
+    private volatile boolean running;
+
+    public UserReadModel(ReadModelProperties properties, JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        // Streams the table instead of buffering it; Postgres only uses the fetch size inside a transaction
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // Read-write, so loads go to the primary: a lagging replica could miss the write that caused them
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        // A new transaction also when called from an after-commit listener, whose finished one is still bound
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Gauge.builder("zebra.readmodel.users", this::size)
+                .description("Users held by the in-memory read model")
+                .register(meterRegistry);
+        Gauge.builder("zebra.readmodel.ready", () -> ready ? 1 : 0)
+                .description("1 while reads are served by the in-memory read model")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<User> findAll() {
+        lock.readLock().lock();
+        try {
+            return columns.findAll();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<User> findByName(String name) {
+        lock.readLock().lock();
+        try {
+            return columns.findByName(name);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns == null ? 0 : columns.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Before UsersSnapshotCache, so a snapshot rebuilt right after its invalidation already sees the change
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangeEvent event) {
+        if (!properties.enabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(event);
+            }
+            if (columns != null) {
+                apply(columns, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A CSV import: reloaded as a whole on the importing thread once it has committed, so the snapshot rebuilt
+    // after it (UsersSnapshotCache listens later) already contains the imported rows
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersBulkChanged(UsersBulkChangedEvent event) {
+        if (running) {
+            load(null);
+        }
+    }
+
+    // Runs on the invalidation listener thread, which waits for the rows to be read
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onUsersInvalidated(UsersInvalidatedEvent event) {
+        if (!running) {
+            return;
+        }
+        if (event.all() || !ready) {
+            load(null);
+            return;
+        }
+        Set<Long> ids = new HashSet<>(event.ids());
+        lock.readLock().lock();
+        try {
+            for (String name : event.names()) {
+                for (User user : columns.findByName(name)) {
+                    ids.add(user.getId());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        load(ids);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        load(null);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Loaded before the web and gRPC servers start taking requests
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    // ids null: the whole table into fresh columns; otherwise just those rows, deleted ones are removed
+    private synchronized void load(Set<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            changesDuringLoad = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            UserColumns loaded = new UserColumns(ids == null ? properties.initialCapacity() : ids.size());
+            loadTransaction.executeWithoutResult(status -> {
+                if (ids == null) {
+                    jdbcTemplate.query(SELECT_USERS, rs -> {
+                        upsert(loaded, rs);
+                    });
+                } else {
+                    jdbcTemplate.query(SELECT_USERS + " WHERE id = ANY(?)", rs -> {
+                        upsert(loaded, rs);
+                    }, (Object) ids.toArray(Long[]::new));
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                if (ids == null) {
+                    columns = loaded;
+                } else {
+                    for (Long id : ids) {
+                        columns.remove(id);
+                    }
+                    for (User user : loaded.findAll()) {
+                        columns.upsert(user.getId(), user.getName(), user.getEmail(), user.getBirthdate());
+                    }
+                }
+                for (UserChangeEvent change : changesDuringLoad) {
+                    apply(columns, change);
+                }
+                ready = true;
+            } finally {
+                changesDuringLoad = null;
+                lock.writeLock().unlock();
+            }
+            if (ids == null) {
+                log.info("Read model loaded {} users", loaded.size());
+            }
+        } catch (RuntimeException e) {
+            ready = false;
+            lock.writeLock().lock();
+            try {
+                changesDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("Read model could not be loaded, reads go to the database until the next reload", e);
+        }
+    }
+
+    private static void upsert(UserColumns target, ResultSet rs) throws SQLException {
+        target.upsert(rs.getLong("id"), rs.getString("name"), rs.getString("email"),
+                rs.getObject("birthdate", LocalDate.class));
+    }
+
+    private static void apply(UserColumns target, UserChangeEvent event) {
+        if (event.type() == UserChangeEvent.Type.DELETED) {
+            target.remove(event.id());
+        } else {
+            target.upsert(event.id(), event.name(), event.email(), event.birthdate());
+        }
+    }
+}
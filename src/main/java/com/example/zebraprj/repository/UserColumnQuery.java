@@ -0,0 +1,59 @@
+package com.example.zebraprj.repository;
+
+import com.example.zebraprj.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Users by id, reading only the requested columns (gRPC GetUsersByIds). One statement for any number of ids:
+// `id = ANY(?)` binds them as a single array, so the statement text and its plan are the same for every
+// batch size, where an IN list would need one placeholder per id.
+@Component
+@Transactional(readOnly = true)
+public class UserColumnQuery {
+
+    public enum Column {
+        ID, NAME, EMAIL, BIRTHDATE;
+
+        String sqlName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserColumnQuery(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Columns that are not requested stay null in the returned users (id is always read); unknown ids are skipped
+    public List<User> findByIds(Collection<Long> ids, Set<Column> columns) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        boolean name = columns.contains(Column.NAME);
+        boolean email = columns.contains(Column.EMAIL);
+        boolean birthdate = columns.contains(Column.BIRTHDATE);
+        String selected = columns.stream()
+                .filter(column -> column != Column.ID)
+                .map(column -> ", " + column.sqlName())
+                .collect(Collectors.joining());
+        return jdbcTemplate.query("SELECT id" + selected + " FROM users WHERE id = ANY(?)",
+                ps -> {
+                    Array array = ps.getConnection().createArrayOf("bigint", ids.toArray());
+                    ps.setArray(1, array);
+                },
+                (rs, rowNum) -> new User(rs.getLong("id"),
+                        name ? rs.getString("name") : null,
+                        email ? rs.getString("email") : null,
+                        birthdate ? rs.getObject("birthdate", LocalDate.class) : null));
+    }
+}
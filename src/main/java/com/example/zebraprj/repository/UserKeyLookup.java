@@ -0,0 +1,52 @@
+package com.example.zebraprj.repository;
+
+import com.example.zebraprj.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Name / email lookups used by the write paths and /crazy. In the default layout these are the plain
+// repository queries. In the partitioned layout users.name / users.email are only indexed per partition,
+// so every lookup would probe all partitions; the guard tables are partitioned by the key itself and
+// answer with a primary key probe in one partition, followed by single-partition fetches by id.
+@Component
+public class UserKeyLookup {
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean partitioned;
+
+    public UserKeyLookup(UserRepository userRepository, JdbcTemplate jdbcTemplate, UsersLayoutProperties layout) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitioned = layout.partitioned();
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    public boolean nameExists(String name) {
+        if (!partitioned) {
+            return userRepository.existsByName(name);
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM user_names WHERE name = ?)", Boolean.class, name));
+    }
+
+    public boolean emailExists(String email) {
+        if (!partitioned) {
+            return userRepository.existsByEmail(email);
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM user_emails WHERE email = ?)", Boolean.class, email));
+    }
+
+    public List<User> findByName(String name) {
+        if (!partitioned) {
+            return userRepository.findByName(name);
+        }
+        List<Long> ids = jdbcTemplate.queryForList("SELECT user_id FROM user_names WHERE name = ?", Long.class, name);
+        return ids.isEmpty() ? List.of() : userRepository.findAllById(ids);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.zebraprj.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// partitioned: users is hash-partitioned with user_names / user_emails guard tables (db/partitioned-users.sql)
+@ConfigurationProperties("zebra.users")
+public record UsersLayoutProperties(@DefaultValue("false") boolean partitioned) {
+}
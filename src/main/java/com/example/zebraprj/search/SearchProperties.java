@@ -0,0 +1,12 @@
+package com.example.zebraprj.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// Page size limits for GET /users/search and gRPC SearchUsers
+@ConfigurationProperties("zebra.search")
+public record SearchProperties(
+        @DefaultValue("20") int defaultPageSize,
+        @DefaultValue("100") int maxPageSize,
+        @DefaultValue("100") int maxQueryLength) {
+}
@@ -0,0 +1,70 @@
+package com.example.zebraprj.search;
+
+import com.example.zebraprj.dto.UserMatch;
+import com.example.zebraprj.dto.UserSearchResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+// Case-insensitive prefix and typo-tolerant search over users.name / users.email.
+// Prefix matches use the text_pattern_ops indexes, fuzzy matches (pg_trgm word similarity, `<%`) the
+// trigram GIN indexes from schema.sql, so the cost follows the number of matches, not the table size.
+// Prefix matches rank first, then by similarity; ties by id keep pages stable.
+@Service
+@Transactional(readOnly = true)
+public class UserSearchService {
+    private static final String SEARCH_SQL = """
+            SELECT id, name, email, birthdate,
+                   (lower(name) LIKE ? ESCAPE '\\' OR lower(email) LIKE ? ESCAPE '\\') AS prefix_match,
+                   GREATEST(word_similarity(?, lower(name)), word_similarity(?, lower(email))) AS score
+            FROM users
+            WHERE lower(name) LIKE ? ESCAPE '\\' OR lower(email) LIKE ? ESCAPE '\\'
+               OR ? <% lower(name) OR ? <% lower(email)
+            ORDER BY prefix_match DESC, score DESC, id
+            LIMIT ? OFFSET ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SearchProperties properties;
+
+    public UserSearchService(JdbcTemplate jdbcTemplate, SearchProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    public int defaultPageSize() {
+        return properties.defaultPageSize();
+    }
+
+    // page is zero-based; IllegalArgumentException for a blank / too long query or an out of range page
+    public UserSearchResponse search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query must not be blank");
+        }
+        if (query.length() > properties.maxQueryLength()) {
+            throw new IllegalArgumentException("Query is longer than " + properties.maxQueryLength() + " characters");
+        }
+        if (page < 0 || size < 1 || size > properties.maxPageSize()) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + properties.maxPageSize());
+        }
+
+        String term = query.strip().toLowerCase(Locale.ROOT);
+        String prefix = escapeLike(term) + "%";
+        // One row more than the page tells whether there is a next page without counting
+        List<UserMatch> rows = jdbcTemplate.query(SEARCH_SQL,
+                (rs, rowNum) -> new UserMatch(rs.getLong("id"), rs.getString("name"), rs.getString("email"),
+                        rs.getObject("birthdate", LocalDate.class), rs.getDouble("score")),
+                prefix, prefix, term, term, prefix, prefix, term, term, size + 1, (long) page * size);
+
+        boolean hasMore = rows.size() > size;
+        return new UserSearchResponse(hasMore ? rows.subList(0, size) : rows, page, size, hasMore);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.zebraprj.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// maxSize: largest list accepted by a single request, chunkSize: records per transaction
+@ConfigurationProperties("zebra.batch")
+public record BatchProperties(
+        @DefaultValue("10000") int maxSize,
+        @DefaultValue("500") int chunkSize) {
+}
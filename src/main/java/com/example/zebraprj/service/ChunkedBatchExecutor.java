@@ -0,0 +1,94 @@
+package com.example.zebraprj.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Processes list requests in fixed-size chunks, one transaction per chunk.
+// The persistence context is flushed and cleared after each chunk, so memory stays flat
+// no matter how long the list is, and no transaction spans the whole request.
+@Component
+public class ChunkedBatchExecutor {
+    private static final Logger log = LoggerFactory.getLogger(ChunkedBatchExecutor.class);
+
+    private final BatchProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ChunkedBatchExecutor(BatchProperties properties, PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Called with the results of one committed chunk; offset is the index of its first item
+    @FunctionalInterface
+    public interface ChunkListener<R> {
+        void committed(int offset, List<R> results);
+    }
+
+    public int maxSize() {
+        return properties.maxSize();
+    }
+
+    public int chunkSize() {
+        return properties.chunkSize();
+    }
+
+    public boolean exceedsMaxSize(int size) {
+        return size > properties.maxSize();
+    }
+
+    // Returns one result per item, in item order.
+    // A database failure rolls back its own chunk only: every item of that chunk gets onFailure's result and
+    // the next chunk still runs, so callers can report which records were committed and which were not.
+    // Anything else (e.g. a cancelled call) stops the loop; chunks committed before it stay committed.
+    public <T, R> List<R> mapInChunks(List<T> items, Function<T, R> action, Function<T, R> onFailure) {
+        return mapInChunks(items, action, onFailure, null);
+    }
+
+    // afterChunk runs inside the chunk's transaction, so e.g. job progress commits atomically with the chunk.
+    // For a rolled-back chunk it runs in a transaction of its own with the failure results.
+    public <T, R> List<R> mapInChunks(List<T> items, Function<T, R> action, Function<T, R> onFailure,
+                                      ChunkListener<R> afterChunk) {
+        int chunkSize = properties.chunkSize();
+        List<R> results = new ArrayList<>(items.size());
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            int offset = from;
+            try {
+                results.addAll(transactionTemplate.execute(status -> {
+                    List<R> chunkResults = new ArrayList<>(chunk.size());
+                    chunk.forEach(item -> chunkResults.add(action.apply(item)));
+                    entityManager.flush(); // Constraint violations surface here, before afterChunk sees the results
+                    if (afterChunk != null) {
+                        afterChunk.committed(offset, chunkResults);
+                    }
+                    entityManager.clear();
+                    return chunkResults;
+                }));
+            } catch (DataAccessException | PersistenceException | TransactionException e) {
+                log.warn("Chunk of {} records at index {} rolled back", chunk.size(), offset, e);
+                List<R> failed = new ArrayList<>(chunk.size());
+                chunk.forEach(item -> failed.add(onFailure.apply(item)));
+                if (afterChunk != null) {
+                    transactionTemplate.executeWithoutResult(status -> afterChunk.committed(offset, failed));
+                }
+                results.addAll(failed);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.zebraprj.service;
+
+import com.example.zebraprj.dto.DeleteInstruction;
+import com.example.zebraprj.dto.RecordStatus;
+import com.example.zebraprj.model.User;
+import com.example.zebraprj.repository.UserKeyLookup;
+import com.example.zebraprj.repository.UserRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+// Per-record write rules shared by the synchronous list endpoints and background jobs.
+// List endpoints call these inside ChunkedBatchExecutor chunks and join the chunk's transaction;
+// single-record callers get a read-write transaction of their own, so the check and the write are atomic.
+@Component
+public class UserRecordOperations {
+    private final UserRepository userRepository;
+    private final UserKeyLookup keyLookup;
+
+    public UserRecordOperations(UserRepository userRepository, UserKeyLookup keyLookup) {
+        this.userRepository = userRepository;
+        this.keyLookup = keyLookup;
+    }
+
+    // saved is set for CREATED, null otherwise
+    public record AddOutcome(RecordStatus.Code code, User saved) {
+    }
+
+    @Transactional
+    public AddOutcome add(User user) {
+        if (keyLookup.nameExists(user.getName())) {
+            return new AddOutcome(RecordStatus.Code.NAME_TAKEN, null);
+        }
+        if (keyLookup.emailExists(user.getEmail())) {
+            return new AddOutcome(RecordStatus.Code.EMAIL_TAKEN, null);
+        }
+        return new AddOutcome(RecordStatus.Code.CREATED, userRepository.save(user));
+    }
+
+    // DELETED, NOT_FOUND, or INVALID when the instruction has neither id nor name
+    @Transactional
+    public RecordStatus.Code delete(DeleteInstruction instruction) {
+        if (instruction.id() != null) {
+            return deleteIfExists(instruction.id()) ? RecordStatus.Code.DELETED : RecordStatus.Code.NOT_FOUND;
+        }
+        if (instruction.name() != null) {
+            List<User> usersByName = keyLookup.findByName(instruction.name());
+            if (usersByName.isEmpty()) {
+                return RecordStatus.Code.NOT_FOUND;
+            }
+            userRepository.deleteAll(usersByName);
+            return RecordStatus.Code.DELETED;
+        }
+        return RecordStatus.Code.INVALID;
+    }
+
+    // False if there was no user with this id
+    @Transactional
+    public boolean deleteIfExists(Long id) {
+        if (!userRepository.existsById(id)) {
+            return false;
+        }
+        userRepository.deleteById(id);
+        return true;
+    }
+}
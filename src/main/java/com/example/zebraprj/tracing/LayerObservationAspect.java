@@ -0,0 +1,79 @@
+package com.example.zebraprj.tracing;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A child span for every controller method and every repository call, named "UserRepository.existsByName" etc.,
+// so a slow request shows whether the time went to binding (before the controller span), the uniqueness
+// checks, the inserts or Mongo. SQL itself is not traced; a repository span covers its statements.
+@Aspect
+@Component
+public class LayerObservationAspect {
+    private static final String APPLICATION_PACKAGE = "com.example.zebraprj.";
+
+    private final ObservationRegistry observationRegistry;
+    private final Map<Class<?>, String> componentNames = new ConcurrentHashMap<>();
+
+    public LayerObservationAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *) && execution(public * *(..))")
+    public Object observeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe("zebra.controller", joinPoint);
+    }
+
+    // Spring Data repositories (JPA and Mongo) plus UserKeyLookup, which answers the name / email checks,
+    // and UserColumnQuery (GetUsersByIds)
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..)) "
+            + "|| execution(public * com.example.zebraprj.repository.UserKeyLookup.*(..)) "
+            + "|| execution(public * com.example.zebraprj.repository.UserColumnQuery.*(..))")
+    public Object observeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe("zebra.repository", joinPoint);
+    }
+
+    private Object observe(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (observationRegistry.isNoop()) {
+            return joinPoint.proceed();
+        }
+        String component = componentName(joinPoint);
+        String method = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted(name, observationRegistry)
+                .contextualName(component + "." + method)
+                .lowCardinalityKeyValue("component", component)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+        try (Observation.Scope scope = observation.openScope()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    // Repository targets are JDK proxies, the interface that names them is UserRepository, not CrudRepository
+    private String componentName(ProceedingJoinPoint joinPoint) {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        return componentNames.computeIfAbsent(targetClass, type -> {
+            if (type.getName().startsWith(APPLICATION_PACKAGE)) {
+                return ClassUtils.getUserClass(type).getSimpleName();
+            }
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+                if (candidate.getName().startsWith(APPLICATION_PACKAGE)) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        });
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.zebraprj.tracing;
+
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import net.devh.boot.grpc.common.util.InterceptorOrder;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+// Wiring for the spans Spring Boot does not create by itself. HTTP server spans (with W3C traceparent
+// extraction) and the OTLP exporter (management.otlp.tracing.endpoint) are auto-configured; controller and
+// repository spans come from LayerObservationAspect.
+@Configuration(proxyBeanMethods = false)
+public class TracingConfig {
+
+    // One span per RPC, continuing the trace from the traceparent metadata entry. Outermost interceptor,
+    // so calls rejected by the rate limiter are traced too.
+    @GrpcGlobalServerInterceptor
+    @Order(InterceptorOrder.ORDER_TRACING_METRICS)
+    public ObservationGrpcServerInterceptor observationGrpcServerInterceptor(ObservationRegistry observationRegistry) {
+        return new ObservationGrpcServerInterceptor(observationRegistry);
+    }
+
+    // A span per Mongo command, parented to the observation current on the calling thread
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoObservationCustomizer(ObservationRegistry observationRegistry) {
+        return settings -> settings
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+
+    // Picked up next to the OTLP exporter, if that is configured
+    @Bean
+    @ConditionalOnProperty(prefix = "zebra.tracing", name = "log-spans", havingValue = "true")
+    public LoggingSpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.zebraprj.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+// logSpans: also write every finished span to the application log (no collector needed)
+@ConfigurationProperties("zebra.tracing")
+public record TracingProperties(@DefaultValue("false") boolean logSpans) {
+}
@@ -0,0 +1,13 @@
+package com.example.zebraprj.web;
+
+import org.springframework.http.MediaType;
+
+// Response formats offered next to JSON. CBOR and Smile are written by Spring MVC's Jackson converters
+// (jackson-dataformat-cbor / -smile on the classpath); Protobuf only where a user.proto message exists.
+public final class BinaryMediaTypes {
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType(APPLICATION_SMILE_VALUE);
+
+    private BinaryMediaTypes() {
+    }
+}
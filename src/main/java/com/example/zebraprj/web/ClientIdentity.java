@@ -0,0 +1,34 @@
+package com.example.zebraprj.web;
+
+import io.grpc.Grpc;
+import io.grpc.ServerCall;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.security.Principal;
+
+// Who a request is attributed to, for rate limits and idempotency keys. Nothing the client sends is trusted:
+// a header or metadata value would give a fresh identity per value.
+public final class ClientIdentity {
+
+    private ClientIdentity() {
+    }
+
+    // Authenticated principal if there is one, otherwise the remote address. Behind a reverse proxy set
+    // server.forward-headers-strategy=native so the address is the client's (taken from X-Forwarded-For by the
+    // proxy hop only), not the proxy's.
+    public static String of(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "principal:" + principal.getName() : request.getRemoteAddr();
+    }
+
+    // The peer's host address, without the port: a client reconnecting for a retry keeps its identity
+    public static String of(ServerCall<?, ?> call) {
+        SocketAddress remote = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+        if (remote instanceof InetSocketAddress inet && inet.getAddress() != null) {
+            return inet.getAddress().getHostAddress();
+        }
+        return String.valueOf(remote);
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.zebraprj.writebehind;
+
+import com.example.zebraprj.event.UserChangeEvent;
+import com.example.zebraprj.feed.UserChange;
+import com.example.zebraprj.feed.UserChangeFeed;
+import com.example.zebraprj.model.UserProperty;
+import com.example.zebraprj.profiling.UserBatchEvent;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Write-behind for UserProperty saves: request threads buffer documents per userId, one flusher thread writes
+// them as unordered bulk upserts, so thousands of single-document posts become a few bulk commands.
+// A later update of a buffered userId replaces the pending document (last write wins, as with save())
+// and its callers share one completion. The buffer holds at most `capacity` userIds; the semaphore makes
+// writers wait for room, and reject after enqueueTimeout, instead of growing without bound.
+@Component
+public class UserPropertyWriteBuffer implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(UserPropertyWriteBuffer.class);
+
+    private final WriteBehindProperties properties;
+    private final MongoTemplate mongoTemplate;
+    private final UserChangeFeed changeFeed;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Semaphore free;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter failed;
+    private volatile Thread flusher;
+    private volatile boolean running;
+    // Set by stop(); enqueues counted in inFlight have passed the check and are waited for before the final flush
+    private volatile boolean stopped;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Latest document of one userId and the completion its writers wait on; document is only
+    // changed inside the map's compute, which the flusher's remove is ordered with
+    private static final class Pending {
+        UserProperty document;
+        final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        Pending(UserProperty document) {
+            this.document = document;
+        }
+    }
+
+    public UserPropertyWriteBuffer(WriteBehindProperties properties, MongoTemplate mongoTemplate,
+                                   UserChangeFeed changeFeed, MeterRegistry meterRegistry) {
+        if (properties.maxBatchSize() < 1 || properties.capacity() < properties.maxBatchSize()) {
+            throw new IllegalArgumentException("zebra.userproperty.write-behind.capacity must be at least max-batch-size (>= 1)");
+        }
+        this.properties = properties;
+        this.mongoTemplate = mongoTemplate;
+        this.changeFeed = changeFeed;
+        this.free = new Semaphore(properties.capacity());
+        Gauge.builder("zebra.userproperty.buffered", this::buffered)
+                .description("UserProperty userIds waiting in the write-behind buffer")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("zebra.userproperty.coalesced")
+                .description("UserProperty updates merged into a buffered document of the same userId")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("zebra.userproperty.rejected")
+                .description("UserProperty writes rejected because the write-behind buffer was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("zebra.userproperty.write-failures")
+                .description("Buffered UserProperty documents that could not be written")
+                .register(meterRegistry);
+    }
+
+    // False while disabled or shutting down; callers then save directly
+    public boolean isActive() {
+        return running;
+    }
+
+    public WriteBehindProperties.Durability durability() {
+        return properties.durability();
+    }
+
+    public Duration flushTimeout() {
+        return properties.flushTimeout();
+    }
+
+    // Completes when the document, or a later update of the same userId, is in Mongo.
+    // WriteBufferFullException if there is no room within enqueueTimeout, or once the buffer is stopping:
+    // a caller that saw isActive() just before stop() would otherwise buffer a document after the final flush.
+    public CompletableFuture<Void> enqueue(UserProperty property) {
+        inFlight.incrementAndGet();
+        try {
+            if (stopped) {
+                rejected.increment();
+                throw new WriteBufferFullException("Write-behind buffer is shutting down, retry later");
+            }
+            return buffer(property);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private CompletableFuture<Void> buffer(UserProperty property) {
+        String userId = property.getUserId();
+        // An update of a buffered userId takes no room, so it goes through even when the buffer is full
+        Pending merged = pending.computeIfPresent(userId, (id, existing) -> {
+            existing.document = property;
+            return existing;
+        });
+        if (merged != null) {
+            coalesced.increment();
+            return merged.written;
+        }
+
+        if (!acquireRoom()) {
+            rejected.increment();
+            throw new WriteBufferFullException("Write-behind buffer is full (" + properties.capacity()
+                    + " user properties), retry later");
+        }
+        boolean[] added = {false};
+        Pending entry = pending.compute(userId, (id, existing) -> {
+            if (existing == null) {
+                added[0] = true;
+                return new Pending(property);
+            }
+            existing.document = property; // Another writer buffered this userId meanwhile
+            return existing;
+        });
+        if (!added[0]) {
+            free.release();
+            coalesced.increment();
+        } else if (buffered() >= properties.maxBatchSize()) {
+            Thread waiting = flusher;
+            if (waiting != null) {
+                LockSupport.unpark(waiting);
+            }
+        }
+        return entry.written;
+    }
+
+    public int buffered() {
+        return properties.capacity() - free.availablePermits();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        stopped = false;
+        running = true;
+        flusher = new Thread(this::run, "userproperty-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Stops after the web and gRPC servers (phase 0 < theirs) and writes whatever is still buffered
+    @Override
+    public void stop() {
+        running = false;
+        stopped = true;
+        Thread flushing = flusher;
+        if (flushing == null) {
+            return;
+        }
+        LockSupport.unpark(flushing);
+        try {
+            flushing.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+        // Enqueues already past the check finish within enqueueTimeout (nothing frees room any more)
+        while (inFlight.get() > 0) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private boolean acquireRoom() {
+        try {
+            return free.tryAcquire(properties.enqueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Woken early by enqueue once a full batch is buffered, otherwise every flushInterval
+    private void run() {
+        long intervalNanos = properties.flushInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Flushing buffered user properties failed", e);
+            }
+        }
+    }
+
+    // Writes everything buffered, in batches of maxBatchSize. Synchronized so batches of the same userId
+    // are never in flight at the same time and land in the order they were buffered.
+    synchronized void flush() {
+        List<Pending> batch = new ArrayList<>(properties.maxBatchSize());
+        for (String userId : pending.keySet()) {
+            Pending entry = pending.remove(userId);
+            if (entry == null) {
+                continue;
+            }
+            free.release();
+            batch.add(entry);
+            if (batch.size() == properties.maxBatchSize()) {
+                write(batch);
+                batch = new ArrayList<>(properties.maxBatchSize());
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        UserBatchEvent event = UserBatchEvent.start("flushUserProperties", batch.size());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserProperty.class);
+        for (Pending entry : batch) {
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(entry.document.getUserId())), entry.document,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        try {
+            // Publishes AfterSaveEvent per document on success, which feeds the change feed
+            bulk.execute();
+            batch.forEach(entry -> entry.written.complete(null));
+            event.finish(batch.size(), 0);
+        } catch (BulkOperationException e) {
+            // Unordered: the other documents were written, but no AfterSaveEvent was published for them
+            Map<Integer, BulkWriteError> errors = e.getErrors().stream()
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, Function.identity()));
+            for (int i = 0; i < batch.size(); i++) {
+                Pending entry = batch.get(i);
+                BulkWriteError error = errors.get(i);
+                if (error == null) {
+                    changeFeed.append(UserChange.Entity.USER_PROPERTY, UserChangeEvent.Type.UPDATED,
+                            entry.document.getUserId(), null, null);
+                    entry.written.complete(null);
+                } else {
+                    entry.written.completeExceptionally(new IllegalStateException(error.getMessage()));
+                }
+            }
+            fail(errors.size(), e);
+            event.finish(batch.size() - errors.size(), errors.size());
+        } catch (RuntimeException e) {
+            batch.forEach(entry -> entry.written.completeExceptionally(e));
+            fail(batch.size(), e);
+            event.finish(0, batch.size());
+        }
+    }
+
+    // With on-enqueue durability nobody waits for these documents any more, so the log is all that is left
+    private void fail(int documents, RuntimeException e) {
+        failed.increment(documents);
+        log.warn("{} buffered user properties could not be written", documents, e);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.zebraprj.writebehind;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// Write-behind buffer for POST /userproperty (UserPropertyWriteBuffer).
+// capacity: distinct userIds waiting to be flushed; further updates of a buffered userId always fit.
+// A batch is flushed once maxBatchSize userIds are buffered, otherwise every flushInterval.
+// A request waits up to enqueueTimeout for room before it is rejected with 503.
+// With after-flush durability a request waits up to flushTimeout for its batch, then gets 503 as well.
+@ConfigurationProperties("zebra.userproperty.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("after-flush") Durability durability,
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("500") int maxBatchSize,
+        @DefaultValue("50ms") Duration flushInterval,
+        @DefaultValue("100ms") Duration enqueueTimeout,
+        @DefaultValue("5s") Duration flushTimeout) {
+
+    public enum Durability {
+        AFTER_FLUSH, // The response is sent once the documents are in Mongo
+        ON_ENQUEUE // 202 as soon as they are buffered; lost if the instance dies before the next flush
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.zebraprj.writebehind;
+
+// No room in the write-behind buffer within zebra.userproperty.write-behind.enqueue-timeout
+public class WriteBufferFullException extends RuntimeException {
+    public WriteBufferFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+-- One-off migration of an existing (unpartitioned) users table to the layout of partitioned-users.sql.
+-- Run with psql from this directory while the application is stopped:
+--   psql -v ON_ERROR_STOP=1 -f migrate-users-to-partitioned.sql
+-- Then start the application with the 'partitioned' profile. users_unpartitioned is kept for verification
+-- and can be dropped afterwards.
+
+BEGIN;
+
+ALTER TABLE users RENAME TO users_unpartitioned;
+ALTER SEQUENCE IF EXISTS users_id_seq RENAME TO users_unpartitioned_id_seq;
+-- Index names are per schema; schema.sql re-creates these on the new table
+DROP INDEX IF EXISTS users_name_trgm_idx, users_email_trgm_idx, users_name_prefix_idx, users_email_prefix_idx;
+
+\ir partitioned-users.sql
+
+-- The trigger fills user_names / user_emails row by row
+INSERT INTO users (id, name, email, birthdate)
+SELECT id, name, email, birthdate FROM users_unpartitioned;
+
+SELECT setval('users_id_seq', COALESCE((SELECT max(id) FROM users), 0) + 1, false);
+
+COMMIT;
+
+ANALYZE users;
+ANALYZE user_names;
+ANALYZE user_emails;
@@ -0,0 +1,75 @@
+-- Hash-partitioned users layout, enabled by the 'partitioned' profile (application-partitioned.properties).
+-- Runs before schema.sql on every start, so every statement is idempotent.
+--
+-- users is partitioned by HASH(id): lookups and deletes by id touch one partition. A unique index on a
+-- partitioned table has to contain the partition key, so global name / email uniqueness moves to two guard
+-- tables partitioned by HASH(name) / HASH(email) and maintained by a trigger on users. A duplicate fails the
+-- guard's primary key, and an exists / find by name or email is a primary key probe in a single partition.
+--
+-- spring.sql.init splits statements on ';' outside single quotes and does not know $$ quoting,
+-- so function and DO bodies are single-quoted.
+
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+               WHERE c.relname = ''users'' AND c.relkind = ''r'' AND n.nspname = current_schema()) THEN
+        RAISE EXCEPTION ''users is not partitioned; migrate it with db/migrate-users-to-partitioned.sql first'';
+    END IF;
+END';
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq;
+
+-- Identity columns are not supported on partitioned tables before Postgres 17, a sequence default works
+-- the same for Hibernate's IDENTITY strategy (the id comes back through RETURNING)
+CREATE TABLE IF NOT EXISTS users (
+    id        BIGINT       NOT NULL DEFAULT nextval('users_id_seq'),
+    name      VARCHAR(255) NOT NULL,
+    email     VARCHAR(255) NOT NULL,
+    birthdate DATE         NOT NULL,
+    PRIMARY KEY (id)
+) PARTITION BY HASH (id);
+
+ALTER SEQUENCE users_id_seq OWNED BY users.id;
+
+CREATE TABLE IF NOT EXISTS user_names (
+    name    VARCHAR(255) PRIMARY KEY,
+    user_id BIGINT       NOT NULL
+) PARTITION BY HASH (name);
+
+CREATE TABLE IF NOT EXISTS user_emails (
+    email   VARCHAR(255) PRIMARY KEY,
+    user_id BIGINT       NOT NULL
+) PARTITION BY HASH (email);
+
+-- Same partition count for all three tables; changing it later means re-creating them
+DO '
+DECLARE
+    partitions CONSTANT int := 16;
+BEGIN
+    FOR i IN 0 .. partitions - 1 LOOP
+        EXECUTE format(''CREATE TABLE IF NOT EXISTS users_p%s PARTITION OF users FOR VALUES WITH (MODULUS %s, REMAINDER %s)'',
+                       i, partitions, i);
+        EXECUTE format(''CREATE TABLE IF NOT EXISTS user_names_p%s PARTITION OF user_names FOR VALUES WITH (MODULUS %s, REMAINDER %s)'',
+                       i, partitions, i);
+        EXECUTE format(''CREATE TABLE IF NOT EXISTS user_emails_p%s PARTITION OF user_emails FOR VALUES WITH (MODULUS %s, REMAINDER %s)'',
+                       i, partitions, i);
+    END LOOP;
+END';
+
+-- Old keys are removed by key and owner, new keys inserted; a taken name / email raises unique_violation
+CREATE OR REPLACE FUNCTION users_guard_keys() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    IF TG_OP IN (''DELETE'', ''UPDATE'') THEN
+        DELETE FROM user_names WHERE name = OLD.name AND user_id = OLD.id;
+        DELETE FROM user_emails WHERE email = OLD.email AND user_id = OLD.id;
+    END IF;
+    IF TG_OP IN (''INSERT'', ''UPDATE'') THEN
+        INSERT INTO user_names (name, user_id) VALUES (NEW.name, NEW.id);
+        INSERT INTO user_emails (email, user_id) VALUES (NEW.email, NEW.id);
+    END IF;
+    RETURN NULL;
+END';
+
+CREATE OR REPLACE TRIGGER users_guard_keys
+    AFTER INSERT OR UPDATE OF name, email OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION users_guard_keys();
@@ -0,0 +1,49 @@
+-- Tables not managed by Hibernate. Runs on every start (spring.sql.init.mode=always),
+-- after Hibernate's own schema handling, so every statement must be idempotent.
+
+-- Background import/delete jobs, see com.example.zebraprj.job
+CREATE TABLE IF NOT EXISTS user_jobs (
+    id                UUID PRIMARY KEY,
+    type              VARCHAR(16)  NOT NULL,
+    status            VARCHAR(16)  NOT NULL,
+    total_records     INT          NOT NULL,
+    processed_records INT          NOT NULL DEFAULT 0,
+    failed_records    INT          NOT NULL DEFAULT 0,
+    failure           TEXT,
+    created_at        TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    started_at        TIMESTAMPTZ,
+    finished_at       TIMESTAMPTZ,
+    lease_until       TIMESTAMPTZ,
+    claim_token       UUID          -- Set on every claim; updates by the worker must match it
+);
+
+-- Tables created before claim tokens existed / before records moved to user_job_records
+ALTER TABLE user_jobs ADD COLUMN IF NOT EXISTS claim_token UUID;
+ALTER TABLE user_jobs DROP COLUMN IF EXISTS payload;
+
+CREATE INDEX IF NOT EXISTS user_jobs_pending_idx ON user_jobs (created_at) WHERE status IN ('QUEUED', 'RUNNING');
+
+-- One row per submitted record (JSON), read back chunk by chunk; deleted when the job completes
+CREATE TABLE IF NOT EXISTS user_job_records (
+    job_id       UUID NOT NULL REFERENCES user_jobs (id) ON DELETE CASCADE,
+    record_index INT  NOT NULL,
+    record       TEXT NOT NULL,
+    PRIMARY KEY (job_id, record_index)
+);
+
+CREATE TABLE IF NOT EXISTS user_job_errors (
+    job_id       UUID NOT NULL REFERENCES user_jobs (id) ON DELETE CASCADE,
+    record_index INT  NOT NULL,
+    message      TEXT NOT NULL,  -- RecordStatus.Code of the failed record
+    PRIMARY KEY (job_id, record_index)
+);
+
+-- User search, see com.example.zebraprj.search.UserSearchService. Trigram GIN indexes serve the fuzzy `<%`
+-- matches (and LIKE prefixes of 3+ characters), the text_pattern_ops indexes short prefixes.
+-- pg_trgm is a trusted extension, the database owner can create it without superuser rights.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS users_name_trgm_idx ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS users_email_trgm_idx ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS users_name_prefix_idx ON users (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS users_email_prefix_idx ON users (lower(email) text_pattern_ops);
@@ -0,0 +1,178 @@
+package com.example.zebraprj;
+
+import com.example.zebraprj.grpc.AddUserRequest;
+import com.example.zebraprj.grpc.AddUserResponse;
+import com.example.zebraprj.grpc.GetUsersRequest;
+import com.example.zebraprj.grpc.GetUsersResponse;
+import com.example.zebraprj.grpc.UserGrpcServiceGrpc;
+import com.example.zebraprj.grpc.UserMessage;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Starts the GraalVM binary built by `mvn -Pnative native:compile` against a Testcontainers Postgres
+// and checks the REST and gRPC endpoints. Skipped when the binary has not been built.
+@Tag("Native")
+@EnabledIf("nativeBinaryBuilt")
+class NativeBinarySmokeTest extends AbstractPostgresTest {
+
+    private static final Path BINARY = Path.of("target", "ZebraPRJ");
+
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+    private static Process app;
+    private static ManagedChannel channel;
+    private static int httpPort;
+
+    static boolean nativeBinaryBuilt() {
+        return Files.isExecutable(BINARY);
+    }
+
+    @BeforeAll
+    static void startBinary() throws Exception {
+        httpPort = freePort();
+        int grpcPort = freePort();
+        app = new ProcessBuilder(BINARY.toAbsolutePath().toString(),
+                "--server.port=" + httpPort,
+                "--grpc.server.port=" + grpcPort,
+                "--spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                "--spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                "--spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                "--spring.jpa.hibernate.ddl-auto=create")
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/native-smoke.log"))
+                .start();
+        channel = ManagedChannelBuilder.forAddress("localhost", grpcPort).usePlaintext().build();
+
+        // A native binary should be up within a second or two, allow generous slack for CI
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                if (get("/hello").statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(100);
+        }
+        throw new IllegalStateException("Native binary did not start, see target/native-smoke.log");
+    }
+
+    @AfterAll
+    static void stopBinary() throws Exception {
+        if (channel != null) {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        if (app != null) {
+            app.destroy();
+            app.waitFor(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Native binary: GET /hello returns 'Hello'")
+    @Tag("Positive")
+    void testHello() throws Exception {
+        HttpResponse<String> response = get("/hello");
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo("Hello");
+    }
+
+    @Test
+    @DisplayName("Native binary: POST /users then GET /users returns the user")
+    @Tag("Positive")
+    void testRestUsers() throws Exception {
+        HttpRequest post = HttpRequest.newBuilder(uri("/users"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "[{\"name\":\"Native Rest\",\"email\":\"native-rest@example.com\",\"birthdate\":\"2000-01-01\"}]"))
+                .build();
+        HttpResponse<String> added = httpClient.send(post, HttpResponse.BodyHandlers.ofString());
+        assertThat(added.statusCode()).isEqualTo(200);
+        assertThat(added.body()).contains("\"addedUsers\"").contains("native-rest@example.com");
+
+        HttpResponse<String> users = get("/users");
+        assertThat(users.statusCode()).isEqualTo(200);
+        assertThat(users.body()).contains("native-rest@example.com");
+    }
+
+    @Test
+    @DisplayName("Native binary: ResponseEntity<?> bodies (per-record status, error, job) are serialized")
+    @Tag("Negative")
+    void testUntypedResponseBodies() throws Exception {
+        String user = "[{\"name\":\"Native Dup\",\"email\":\"native-dup@example.com\",\"birthdate\":\"2000-01-01\"}]";
+        send("POST", "/users", user);
+        HttpResponse<String> duplicate = send("POST", "/users", user);
+        assertThat(duplicate.body()).contains("\"code\":\"NAME_TAKEN\"").contains("\"index\":0");
+
+        HttpResponse<String> missingId = send("DELETE", "/users", "[]");
+        assertThat(missingId.statusCode()).isEqualTo(400);
+        assertThat(missingId.body()).contains("\"error\":\"Missing 'id'");
+
+        HttpResponse<String> job = send("POST", "/users?async=true", user);
+        assertThat(job.statusCode()).isEqualTo(202);
+        assertThat(job.body()).contains("\"jobId\"").contains("\"status\":\"QUEUED\"");
+    }
+
+    @Test
+    @DisplayName("Native binary: gRPC AddUser then GetUsers returns the user")
+    @Tag("GRPc")
+    @Tag("Positive")
+    void testGrpcUsers() {
+        UserGrpcServiceGrpc.UserGrpcServiceBlockingStub stub = UserGrpcServiceGrpc.newBlockingStub(channel)
+                .withDeadlineAfter(10, TimeUnit.SECONDS);
+        AddUserResponse added = stub.addUser(AddUserRequest.newBuilder().setUser(UserMessage.newBuilder()
+                .setName("Native Grpc")
+                .setEmail("native-grpc@example.com")
+                .setBirthdate("2000-01-01")
+                .build()).build());
+        assertThat(added.getErrorList()).isEmpty();
+
+        GetUsersResponse users = stub.getUsers(GetUsersRequest.newBuilder().build());
+        assertThat(users.getUsersList()).extracting(UserMessage::getName).contains("Native Grpc");
+    }
+
+    private static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).timeout(Duration.ofSeconds(5)).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> send(String method, String path, String json)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(String path) {
+        return URI.create("http://localhost:" + httpPort + path);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
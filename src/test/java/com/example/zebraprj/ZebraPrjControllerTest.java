@@ -1,7 +1,11 @@
 package com.example.zebraprj;
 
+import com.example.zebraprj.grpc.GetUsersResponse;
+import com.example.zebraprj.grpc.UserMessage;
 import com.example.zebraprj.model.User;
 import com.example.zebraprj.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import org.junit.jupiter.api.BeforeAll;
@@ -14,7 +18,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.TestPropertySource;
 import org.testcontainers.DockerClientFactory;
@@ -35,7 +42,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 // 2. Override ddl-auto to have Hibernate create the schema for us in the fresh container
 @TestPropertySource(properties = {
         "spring.jpa.hibernate.ddl-auto=create-drop",
-        "grpc.server.port=0"
+        "grpc.server.port=0",
+        "zebra.csv.max-rows=5"
 })
 class ZebraPrjControllerTest extends AbstractPostgresTest {
 
@@ -131,6 +139,90 @@ class ZebraPrjControllerTest extends AbstractPostgresTest {
         assertThat(response.getBody().get(0).getName()).isEqualTo("Alice Smith");
     }
 
+    @Test
+    @DisplayName("Check GET /users with matching If-None-Match returns 304")
+    @Tag("Positive")
+    void testGETUsersNotModified() {
+        ResponseEntity<String> first = restTemplate.getForEntity(usersEndpoint, String.class);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotBlank();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> second = restTemplate.exchange(
+                usersEndpoint,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String.class
+        );
+        assertThat(second.getStatusCode().value()).isEqualTo(304);
+        assertThat(second.getBody()).isNull();
+    }
+
+    @Test
+    @DisplayName("Check GET /users with Accept application/x-protobuf returns GetUsersResponse")
+    @Tag("Positive")
+    void testGETUsersProtobuf() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_PROTOBUF));
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                usersEndpoint,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PROTOBUF);
+        assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+
+        GetUsersResponse users = GetUsersResponse.parseFrom(response.getBody());
+        assertThat(users.getUsersList()).extracting(UserMessage::getName)
+                .containsExactlyInAnyOrder("Alice Smith", "Bob Johnson");
+    }
+
+    @Test
+    @DisplayName("Check GET /users with Accept application/cbor returns the JSON structure and its own ETag")
+    @Tag("Positive")
+    void testGETUsersCbor() throws Exception {
+        String jsonEtag = restTemplate.getForEntity(usersEndpoint, String.class).getHeaders().getETag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                usersEndpoint,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                byte[].class
+        );
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(jsonEtag);
+
+        JsonNode users = new CBORMapper().readTree(response.getBody());
+        assertThat(users).hasSize(2);
+        assertThat(users.get(0).get("birthdate").asText()).isEqualTo("1999-01-01");
+    }
+
+    @Test
+    @DisplayName("Check GET /users ETag changes after a user is deleted")
+    @Tag("Positive")
+    void testGETUsersETagChangesAfterWrite() {
+        String etag = restTemplate.getForEntity(usersEndpoint, String.class).getHeaders().getETag();
+        userRepository.deleteById(userRepository.findAll().get(0).getId());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<List<User>> response = restTemplate.exchange(
+                usersEndpoint,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<>() {}
+        );
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(response.getBody()).hasSize(1);
+    }
+
     @Test
     @DisplayName("Check POST /users adds a new user")
     @Tag("Positive")
@@ -191,6 +283,25 @@ class ZebraPrjControllerTest extends AbstractPostgresTest {
         assertThat(response.getBody()).containsKey("errors");
     }
 
+    @Test
+    @DisplayName("POST /deleteuser above the batch limit returns 413 without deleting")
+    @Tag("Negative")
+    void testDeleteUserBatchTooLargePOST(){
+        Long testUserID = userRepository.findAll().get(0).getId();
+        List<Map<String,Object>> request = new java.util.ArrayList<>();
+        for (int i = 0; i <= 10_000; i++) {
+            request.add(Map.of("id", testUserID));
+        }
+        ResponseEntity<Map> response = restTemplate.postForEntity(
+                DELETEUSER_ENDPOINT,
+                request,
+                Map.class
+        );
+
+        assertThat(response.getStatusCode().value()).isEqualTo(413);
+        assertThat(userRepository.existsById(testUserID)).isTrue();
+    }
+
     @Test
     @DisplayName("DELETE /users. ID in URL (/users?id=xx)")
     @Tag("Positive")
@@ -255,8 +366,12 @@ class ZebraPrjControllerTest extends AbstractPostgresTest {
 
         assertThat(response.getStatusCode().value()).isEqualTo(404);
         assertThat(response.getBody()).containsKey("errors");
-        assertThat(response.getBody().get("errors").toString())
-                .contains("User with ID " + nonExistingUserID + " not found");
+        assertThat((List<Map<String, Object>>) response.getBody().get("errors"))
+                .singleElement()
+                .satisfies(error -> {
+                    assertThat(error).containsEntry("index", 0).containsEntry("code", "NOT_FOUND");
+                    assertThat(((Number) error.get("id")).longValue()).isEqualTo(nonExistingUserID);
+                });
     }
 
     @Test
@@ -272,7 +387,8 @@ class ZebraPrjControllerTest extends AbstractPostgresTest {
                 .get("/crazy")
         .then()
                 .statusCode(200)
-                .body("message", equalTo("User with ID " + testUserId + " deleted successfully"));
+                .body("code", equalTo("DELETED"))
+                .body("id", equalTo(testUserId.intValue()));
 
         assertThat(userRepository.existsById(testUserId)).isFalse();
     }
@@ -289,7 +405,8 @@ class ZebraPrjControllerTest extends AbstractPostgresTest {
                 .get("/crazy")
         .then()
                 .statusCode(404)
-                .body("error", equalTo("User with ID " + nonExistingUserID + " not found"));
+                .body("code", equalTo("NOT_FOUND"))
+                .body("id", equalTo(nonExistingUserID.intValue()));
     }
 
         @Test
@@ -324,7 +441,8 @@ class ZebraPrjControllerTest extends AbstractPostgresTest {
                 .get("/crazy")
         .then()
                 .statusCode(404)
-                .body("error", equalTo("No user found with name '" + testUserName + "'"));
+                .body("code", equalTo("NOT_FOUND"))
+                .body("name", equalTo(testUserName));
     }
 
     @Test
@@ -355,4 +473,227 @@ class ZebraPrjControllerTest extends AbstractPostgresTest {
                 .statusCode(400)
                 .body("error", equalTo("'id' must be a valid number"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST /users?async=true - returns 202 and the job completes with per-record errors")
+    @Tag("Positive")
+    void testPOSTUsersAsyncJobCompletes() throws InterruptedException {
+        List<Map<String, Object>> users = List.of(
+                Map.of("name", "Async One", "email", "async-one@example.com", "birthdate", "2001-01-01"),
+                Map.of("name", "Alice Smith", "email", "alice-dup@example.com", "birthdate", "2001-01-01"));
+
+        var submitted = given()
+                .contentType(ContentType.JSON)
+                .body(users)
+        .when()
+                .post(usersEndpoint + "?async=true")
+        .then()
+                .statusCode(202)
+                .body("status", equalTo("QUEUED"))
+                .extract();
+        String jobId = submitted.path("jobId");
+        assertThat(submitted.header("Location")).endsWith("/jobs/" + jobId);
+
+        String status = "QUEUED";
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!status.equals("COMPLETED") && !status.equals("FAILED") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(200);
+            status = given().when().get("/jobs/" + jobId).then().statusCode(200).extract().path("status");
+        }
+
+        given()
+        .when()
+                .get("/jobs/" + jobId)
+        .then()
+                .statusCode(200)
+                .body("status", equalTo("COMPLETED"))
+                .body("totalRecords", equalTo(2))
+                .body("processedRecords", equalTo(2))
+                .body("failedRecords", equalTo(1))
+                .body("errors[0].index", equalTo(1))
+                .body("errors[0].code", equalTo("NAME_TAKEN"));
+        assertThat(userRepository.findByName("Async One")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("POST /users retried with the same Idempotency-Key returns the original 200, not a 409")
+    @Tag("Positive")
+    void testPOSTUsersIdempotentRetry() {
+        String key = java.util.UUID.randomUUID().toString();
+        List<Map<String, Object>> users = List.of(
+                Map.of("name", "Retry Once", "email", "retry-once@example.com", "birthdate", "2001-01-01"));
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .header("Idempotency-Key", key)
+                    .body(users)
+            .when()
+                    .post(usersEndpoint)
+            .then()
+                    .statusCode(200)
+                    .body("addedUsers[0].name", equalTo("Retry Once"));
+        }
+        assertThat(userRepository.findByName("Retry Once")).hasSize(1);
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("Idempotency-Key", key)
+                .body(List.of(Map.of("name", "Someone Else", "email", "else@example.com", "birthdate", "2001-01-01")))
+        .when()
+                .post(usersEndpoint)
+        .then()
+                .statusCode(422);
+    }
+
+    @Test
+    @DisplayName("GET /users/search - case-insensitive prefix of the email matches")
+    @Tag("Positive")
+    void testSearchUsersByPrefix() {
+        given()
+                .queryParam("q", "BOB")
+        .when()
+                .get("/users/search")
+        .then()
+                .statusCode(200)
+                .body("results.size()", equalTo(1))
+                .body("results[0].name", equalTo("Bob Johnson"))
+                .body("hasMore", equalTo(false));
+    }
+
+    @Test
+    @DisplayName("GET /users/search - misspelled name still matches, one result per page")
+    @Tag("Positive")
+    void testSearchUsersFuzzyPaged() {
+        userRepository.save(new User(null, "Carol Smith", "carol@example.com", LocalDate.of(1990, 3, 3)));
+
+        var response = given()
+                .queryParam("q", "smitth")
+                .queryParam("size", 1)
+        .when()
+                .get("/users/search")
+        .then()
+                .statusCode(200)
+                .body("results.size()", equalTo(1))
+                .body("hasMore", equalTo(true))
+                .extract();
+        String firstPage = response.path("results[0].name");
+
+        String secondPage = given()
+                .queryParam("q", "smitth")
+                .queryParam("size", 1)
+                .queryParam("page", 1)
+        .when()
+                .get("/users/search")
+        .then()
+                .statusCode(200)
+                .body("hasMore", equalTo(false))
+                .extract().path("results[0].name");
+        assertThat(List.of(firstPage, secondPage)).containsExactlyInAnyOrder("Alice Smith", "Carol Smith");
+    }
+
+    @Test
+    @DisplayName("GET /users/search - blank query - error 400")
+    @Tag("Negative")
+    void testSearchUsersBlankQuery() {
+        given()
+                .queryParam("q", " ")
+        .when()
+                .get("/users/search")
+        .then()
+                .statusCode(400)
+                .body("error", equalTo("Query must not be blank"));
+    }
+
+    @Test
+    @DisplayName("GET /users/export streams all users as CSV")
+    @Tag("Positive")
+    void testExportUsersCsv() {
+        String csv = given()
+        .when()
+                .get("/users/export")
+        .then()
+                .statusCode(200)
+                .contentType(org.hamcrest.Matchers.startsWith("text/csv"))
+                .extract().asString();
+
+        List<String> lines = csv.lines().toList();
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(0)).isEqualTo("id,name,email,birthdate");
+        assertThat(lines.get(1)).endsWith(",Alice Smith,alice@example.com,1999-01-01");
+    }
+
+    @Test
+    @DisplayName("POST /users/import inserts new rows and skips name/email conflicts, GET /users sees the import")
+    @Tag("Positive")
+    void testImportUsersCsv() {
+        String csv = """
+                name,email,birthdate
+                Carol White,carol@example.com,1990-03-03
+                Alice Smith,alice-2@example.com,1990-03-03
+                Dave Brown,carol@example.com,1990-03-03
+                ,empty@example.com,1990-03-03
+                """;
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+        .when()
+                .post("/users/import")
+        .then()
+                .statusCode(200)
+                .body("rows", equalTo(4))
+                .body("inserted", equalTo(1))
+                .body("conflicts", equalTo(2))
+                .body("invalid", equalTo(1));
+
+        assertThat(userRepository.count()).isEqualTo(3);
+        assertThat(restTemplate.getForEntity(usersEndpoint, String.class).getBody()).contains("carol@example.com");
+    }
+
+    @Test
+    @DisplayName("POST /users/import with an invalid date - error 400, nothing imported")
+    @Tag("Negative")
+    void testImportUsersCsvMalformed() {
+        given()
+                .contentType("text/csv")
+                .body("name,email,birthdate\nCarol White,carol@example.com,not-a-date\n")
+        .when()
+                .post("/users/import")
+        .then()
+                .statusCode(400);
+
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("POST /users/import with more rows than zebra.csv.max-rows - error 413, nothing imported")
+    @Tag("Negative")
+    void testImportUsersCsvTooLarge() {
+        StringBuilder csv = new StringBuilder("name,email,birthdate\n");
+        for (int i = 0; i < 6; i++) {
+            csv.append("Bulk ").append(i).append(",bulk-").append(i).append("@example.com,1990-03-03\n");
+        }
+
+        given()
+                .contentType("text/csv")
+                .body(csv.toString())
+        .when()
+                .post("/users/import")
+        .then()
+                .statusCode(413);
+
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("GET /jobs/{id}. Unknown job - error 404")
+    @Tag("Negative")
+    void testGETJobNotFound() {
+        given()
+        .when()
+                .get("/jobs/00000000-0000-0000-0000-000000000000")
+        .then()
+                .statusCode(404);
+    }
+}
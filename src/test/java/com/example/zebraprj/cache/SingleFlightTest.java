@@ -0,0 +1,146 @@
+package com.example.zebraprj.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong version = new AtomicLong();
+    private final SingleFlight<String, String> flight = new SingleFlight<>(meterRegistry, "test", version::get);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent identical reads share one load")
+    @Tag("Positive")
+    public void testConcurrentCallsAreCoalesced() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        List<Future<String>> results = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> flight.execute("all", () -> {
+                loads.incrementAndGet();
+                awaitQuietly(release);
+                return "users";
+            })));
+        }
+        // Wait until every follower has joined the leader before letting it finish
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalescedCount() < 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("users", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(7.0, coalescedCount());
+        assertEquals(1.0, meterRegistry.counter("zebra.reads.executed", "query", "test").count());
+    }
+
+    @Test
+    @DisplayName("Sequential reads are not cached")
+    @Tag("Positive")
+    public void testSequentialCallsLoadAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        flight.execute("all", () -> "v" + loads.incrementAndGet());
+        String second = flight.execute("all", () -> "v" + loads.incrementAndGet());
+
+        assertEquals("v2", second);
+        assertEquals(0.0, coalescedCount());
+    }
+
+    @Test
+    @DisplayName("Failed load is rethrown and does not poison the key")
+    @Tag("Negative")
+    public void testFailureIsNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> flight.execute("all", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals("ok", flight.execute("all", () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("A read after a committed write does not join a slow load that started before the write")
+    @Tag("Positive")
+    public void testReadYourWritesSkipsOlderLoad() throws Exception {
+        CountDownLatch slowLoadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> slowRead = executor.submit(() -> flight.execute("all", () -> {
+            slowLoadStarted.countDown();
+            awaitQuietly(release);
+            return "before write";
+        }));
+        assertTrue(slowLoadStarted.await(5, TimeUnit.SECONDS));
+
+        version.incrementAndGet(); // The writer's commit, seen before its response goes out
+        Future<String> readAfterWrite = executor.submit(() -> flight.execute("all", () -> "after write"));
+
+        assertEquals("after write", readAfterWrite.get(5, TimeUnit.SECONDS));
+        assertFalse(slowRead.isDone(), "the fresh read did not wait for the older load");
+        release.countDown();
+        assertEquals("before write", slowRead.get(5, TimeUnit.SECONDS));
+        assertEquals(0.0, coalescedCount());
+        assertEquals(2.0, meterRegistry.counter("zebra.reads.executed", "query", "test").count());
+    }
+
+    @Test
+    @DisplayName("A read joins a newer load started after the version it observed")
+    @Tag("Positive")
+    public void testReadJoinsNewerLoad() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        version.set(3);
+        Future<String> leader = executor.submit(() -> flight.execute("all", () -> {
+            loadStarted.countDown();
+            awaitQuietly(release);
+            return "v3";
+        }));
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        Future<String> follower = executor.submit(() -> flight.execute("all", () -> "own load"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (coalescedCount() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        assertEquals("v3", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("v3", follower.get(5, TimeUnit.SECONDS));
+    }
+
+    private double coalescedCount() {
+        return meterRegistry.counter("zebra.reads.coalesced", "query", "test").count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.zebraprj.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PoolSaturationHealthIndicatorTest {
+
+    private static HikariDataSource pool(String name, int max, int active, int waiting) {
+        HikariPoolMXBean mxBean = mock(HikariPoolMXBean.class);
+        when(mxBean.getActiveConnections()).thenReturn(active);
+        when(mxBean.getIdleConnections()).thenReturn(max - active);
+        when(mxBean.getTotalConnections()).thenReturn(max);
+        when(mxBean.getThreadsAwaitingConnection()).thenReturn(waiting);
+
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        when(dataSource.getPoolName()).thenReturn(name);
+        when(dataSource.getMaximumPoolSize()).thenReturn(max);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(mxBean);
+        return dataSource;
+    }
+
+    private static Health health(Map<String, javax.sql.DataSource> dataSources) {
+        return new PoolSaturationHealthIndicator(dataSources, new PoolHealthProperties(0.9)).health();
+    }
+
+    @Test
+    @DisplayName("Pool with spare connections is UP and reports its usage")
+    @Tag("Positive")
+    public void testPoolWithSpareConnectionsIsUp() {
+        Health health = health(Map.of("dataSource", pool("primary", 10, 3, 0)));
+
+        assertEquals(Status.UP, health.getStatus());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> primary = (Map<String, Object>) health.getDetails().get("primary");
+        assertEquals(3, primary.get("active"));
+        assertEquals(10, primary.get("max"));
+    }
+
+    @Test
+    @DisplayName("Threads waiting for a connection make the pool SATURATED")
+    @Tag("Negative")
+    public void testWaitingThreadsAreSaturated() {
+        Health health = health(Map.of("dataSource", pool("primary", 10, 5, 2)));
+
+        assertEquals(PoolSaturationHealthIndicator.SATURATED, health.getStatus());
+    }
+
+    @Test
+    @DisplayName("Any saturated pool (e.g. the replica) makes the indicator SATURATED")
+    @Tag("Negative")
+    public void testOneSaturatedPoolOfSeveral() {
+        Health health = health(Map.of(
+                "primaryDataSource", pool("primary", 10, 1, 0),
+                "replicaDataSource", pool("replica", 10, 9, 0)));
+
+        assertEquals(PoolSaturationHealthIndicator.SATURATED, health.getStatus());
+        assertTrue(health.getDetails().containsKey("replica"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.zebraprj.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The config has no @Conditional on purpose: under Spring AOT conditions are frozen at build time, so the
+// replica must be picked up from properties seen when the context starts. Pools are not opened here.
+public class ReadReplicaDataSourceConfigTest {
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties({DataSourceProperties.class, ReplicaProperties.class})
+    static class Properties {
+    }
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(Properties.class, ReadReplicaDataSourceConfig.class)
+            .withPropertyValues("spring.datasource.url=jdbc:postgresql://primary:5432/zebra_db");
+
+    @Test
+    @DisplayName("Without a replica url the routing DataSource is still registered and only the primary pool exists")
+    @Tag("Positive")
+    public void testNoReplicaUrl() {
+        runner.run(context -> {
+            assertNull(context.getStartupFailure());
+            assertInstanceOf(LazyConnectionDataSourceProxy.class, context.getBean(DataSource.class));
+            assertEquals(1, context.getBeansOfType(HikariDataSource.class).size());
+            assertFalse(context.getBean(ReplicaProperties.class).enabled());
+        });
+    }
+
+    @Test
+    @DisplayName("A replica url set at startup adds the read-only replica pool with its own hikari settings")
+    @Tag("Positive")
+    public void testReplicaUrlAtStartup() {
+        runner.withPropertyValues(
+                        "zebra.datasource.replica.url=jdbc:postgresql://replica:5432/zebra_db",
+                        "zebra.datasource.replica.hikari.maximum-pool-size=7")
+                .run(context -> {
+                    assertNull(context.getStartupFailure());
+                    assertInstanceOf(LazyConnectionDataSourceProxy.class, context.getBean(DataSource.class));
+                    HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+                    assertEquals("replica", replica.getPoolName());
+                    assertEquals(7, replica.getMaximumPoolSize());
+                    assertTrue(replica.isReadOnly());
+                    assertEquals(2, context.getBeansOfType(HikariDataSource.class).size());
+                });
+    }
+}
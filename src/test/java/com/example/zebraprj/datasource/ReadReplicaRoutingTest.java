@@ -0,0 +1,156 @@
+package com.example.zebraprj.datasource;
+
+import com.example.zebraprj.AbstractPostgresTest;
+import com.example.zebraprj.cache.UsersSnapshotCache;
+import com.example.zebraprj.grpc.GetUsersRequest;
+import com.example.zebraprj.grpc.UserGrpcServiceGrpc;
+import com.example.zebraprj.grpc.UserMessage;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// Two independent Postgres containers stand in for primary and replica. Nothing replicates between them,
+// so a row only present on one side shows exactly where a query was routed.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "grpc.server.in-process-name=replica-test",
+        "grpc.server.port=-1",
+        "grpc.client.replica-test.address=in-process:replica-test",
+        "zebra.datasource.replica.max-lag=100ms"
+})
+class ReadReplicaRoutingTest extends AbstractPostgresTest {
+
+    @Container
+    static final PostgreSQLContainer<?> replicaContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("zebra.datasource.replica.url", replicaContainer::getJdbcUrl);
+        registry.add("zebra.datasource.replica.username", replicaContainer::getUsername);
+        registry.add("zebra.datasource.replica.password", replicaContainer::getPassword);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private UsersSnapshotCache usersSnapshotCache;
+
+    @GrpcClient("replica-test")
+    private UserGrpcServiceGrpc.UserGrpcServiceBlockingStub stub;
+
+    private JdbcTemplate primary;
+    private static JdbcTemplate replica;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        // The replica pool is read-only, so the schema is created through a separate connection
+        replica = new JdbcTemplate(new DriverManagerDataSource(replicaContainer.getJdbcUrl(),
+                replicaContainer.getUsername(), replicaContainer.getPassword()));
+        replica.execute("CREATE TABLE IF NOT EXISTS users (id BIGSERIAL PRIMARY KEY, name VARCHAR(255) NOT NULL UNIQUE, "
+                + "email VARCHAR(255) NOT NULL UNIQUE, birthdate DATE NOT NULL)");
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+        primary = new JdbcTemplate(primaryDataSource);
+        primary.update("DELETE FROM users");
+        replica.update("DELETE FROM users");
+        primary.update("INSERT INTO users (name, email, birthdate) VALUES ('Primary Only', 'primary@example.com', '1990-01-01')");
+        replica.update("INSERT INTO users (name, email, birthdate) VALUES ('Replica Only', 'replica@example.com', '1990-01-01')");
+        usersSnapshotCache.invalidate();
+    }
+
+    @Test
+    @DisplayName("GET /users reads from the replica")
+    @Tag("Positive")
+    void testGETUsersReadsReplica() {
+        List<String> names = given()
+                .when()
+                .get("/users")
+                .then()
+                .statusCode(200)
+                .extract()
+                .path("name");
+
+        assertThat(names).containsExactly("Replica Only");
+    }
+
+    @Test
+    @DisplayName("GET /crazy name lookup reads from the replica")
+    @Tag("Positive")
+    void testCrazyGetNameLookupReadsReplica() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("name", "Replica Only"))
+        .when()
+                .get("/crazy")
+        .then()
+                .statusCode(200)
+                .body("foundUsers[0].email", equalTo("replica@example.com"));
+    }
+
+    @Test
+    @DisplayName("gRPC getUsers reads from the replica")
+    @Tag("GRPc")
+    @Tag("Positive")
+    void testGrpcGetUsersReadsReplica() {
+        assertThat(stub.getUsers(GetUsersRequest.newBuilder().build()).getUsersList())
+                .extracting(UserMessage::getName)
+                .containsExactly("Replica Only");
+    }
+
+    @Test
+    @DisplayName("POST /users and deletes write to the primary")
+    @Tag("Positive")
+    void testWritesGoToPrimary() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(Map.of("name", "New User", "email", "new@example.com", "birthdate", "2000-01-01")))
+        .when()
+                .post("/users")
+        .then()
+                .statusCode(200);
+
+        Long primaryId = primary.queryForObject("SELECT id FROM users WHERE name = 'Primary Only'", Long.class);
+        given()
+        .when()
+                .get("/deleteuser/" + primaryId)
+        .then()
+                .statusCode(200);
+
+        assertThat(primary.queryForList("SELECT name FROM users", String.class)).containsExactly("New User");
+        assertThat(replica.queryForList("SELECT name FROM users", String.class)).containsExactly("Replica Only");
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.zebraprj.feed;
+
+import com.example.zebraprj.event.UserChangeEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserChangeFeedTest {
+
+    // Delivery runs inline, so every assertion sees the sink state right after append()
+    private static UserChangeFeed feed(int capacity) {
+        return new UserChangeFeed(new ChangeFeedProperties(capacity, 1, Duration.ofMinutes(1)), Runnable::run);
+    }
+
+    private static void appendUsers(UserChangeFeed feed, int count) {
+        for (int i = 0; i < count; i++) {
+            feed.append(UserChange.Entity.USER, UserChangeEvent.Type.CREATED, String.valueOf(i), "user" + i, i + "@example.com");
+        }
+    }
+
+    private static List<Long> sequences(List<UserChange> changes) {
+        return changes.stream().map(UserChange::sequence).toList();
+    }
+
+    @Test
+    @DisplayName("Live subscriber gets only changes appended after subscribing")
+    @Tag("Positive")
+    public void testLiveSubscription() {
+        UserChangeFeed feed = feed(10);
+        appendUsers(feed, 2);
+        List<UserChange> received = new ArrayList<>();
+
+        feed.subscribe(null, received::add, () -> fail("unexpected overflow"));
+        appendUsers(feed, 2);
+
+        assertEquals(List.of(3L, 4L), sequences(received));
+    }
+
+    @Test
+    @DisplayName("Resuming replays buffered changes after the given sequence, then continues live")
+    @Tag("Positive")
+    public void testResumeReplaysThenContinues() {
+        UserChangeFeed feed = feed(10);
+        appendUsers(feed, 5);
+        List<UserChange> received = new ArrayList<>();
+
+        feed.subscribe(3L, received::add, () -> fail("unexpected overflow"));
+        appendUsers(feed, 1);
+
+        assertEquals(List.of(4L, 5L, 6L), sequences(received));
+    }
+
+    @Test
+    @DisplayName("Resuming from a sequence that was overwritten or never issued is a gap")
+    @Tag("Negative")
+    public void testResumeOutsideBufferIsGap() {
+        UserChangeFeed feed = feed(3);
+        appendUsers(feed, 5); // buffer holds 3..5
+
+        assertThrows(ChangeFeedGapException.class, () -> feed.subscribe(1L, change -> { }, () -> { }));
+        assertThrows(ChangeFeedGapException.class, () -> feed.subscribe(6L, change -> { }, () -> { }));
+        assertDoesNotThrow(() -> feed.subscribe(2L, change -> { }, () -> { }));
+    }
+
+    @Test
+    @DisplayName("Cancelled subscriber receives nothing more")
+    @Tag("Positive")
+    public void testCancel() {
+        UserChangeFeed feed = feed(10);
+        List<UserChange> received = new ArrayList<>();
+
+        UserChangeFeed.Subscription subscription = feed.subscribe(null, received::add, () -> { });
+        appendUsers(feed, 1);
+        subscription.cancel();
+        appendUsers(feed, 1);
+
+        assertEquals(List.of(1L), sequences(received));
+        assertTrue(subscription.isCancelled());
+    }
+
+    @Test
+    @DisplayName("Subscriber lagging more than the capacity is dropped after its queued changes")
+    @Tag("Negative")
+    public void testSlowSubscriberOverflows() {
+        List<Runnable> queuedDrains = new ArrayList<>();
+        UserChangeFeed feed = new UserChangeFeed(new ChangeFeedProperties(3, 1, Duration.ofMinutes(1)), queuedDrains::add);
+        List<UserChange> received = new ArrayList<>();
+        AtomicBoolean overflowed = new AtomicBoolean();
+
+        UserChangeFeed.Subscription subscription = feed.subscribe(null, received::add, () -> overflowed.set(true));
+        appendUsers(feed, 5); // delivery has not run yet, so the 4th change overflows the queue
+        queuedDrains.forEach(Runnable::run);
+
+        assertEquals(List.of(1L, 2L, 3L), sequences(received));
+        assertTrue(overflowed.get());
+        assertTrue(subscription.isCancelled());
+    }
+
+    @Test
+    @DisplayName("Delivery pauses while the sink is not ready and continues on resume()")
+    @Tag("Positive")
+    public void testNotReadySinkPausesDelivery() {
+        UserChangeFeed feed = feed(10);
+        List<UserChange> received = new ArrayList<>();
+        AtomicBoolean ready = new AtomicBoolean(false);
+
+        UserChangeFeed.Subscription subscription = feed.subscribe(null, received::add, ready::get,
+                () -> fail("unexpected overflow"));
+        appendUsers(feed, 3);
+        assertTrue(received.isEmpty());
+
+        ready.set(true);
+        subscription.resume();
+        appendUsers(feed, 1);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequences(received));
+    }
+
+    @Test
+    @DisplayName("A sink that stays not ready overflows at the capacity, like a slow one")
+    @Tag("Negative")
+    public void testNotReadySinkOverflows() {
+        UserChangeFeed feed = feed(3);
+        List<UserChange> received = new ArrayList<>();
+        AtomicBoolean ready = new AtomicBoolean(false);
+        AtomicBoolean overflowed = new AtomicBoolean();
+
+        UserChangeFeed.Subscription subscription = feed.subscribe(null, received::add, ready::get,
+                () -> overflowed.set(true));
+        appendUsers(feed, 5);
+        assertFalse(overflowed.get());
+
+        ready.set(true);
+        subscription.resume();
+
+        assertEquals(List.of(1L, 2L, 3L), sequences(received));
+        assertTrue(overflowed.get());
+        assertTrue(subscription.isCancelled());
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.zebraprj.grpc;
+
+import com.example.zebraprj.datasource.StatementScopeDataSource;
+import io.grpc.Context;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GrpcDbDispatcherTest {
+
+    private final ThreadPoolExecutor executor =
+            new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+    private final GrpcDbDispatcher dispatcher = new GrpcDbDispatcher(executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("dispatch completes the observer from the executor thread")
+    @Tag("GRPc")
+    @Tag("Positive")
+    public void testDispatchCompletesObserver() throws Exception {
+        RecordingObserver<String> observer = new RecordingObserver<>();
+
+        dispatcher.dispatch(observer, () -> Thread.currentThread().getName());
+
+        assertTrue(observer.done.await(5, TimeUnit.SECONDS));
+        assertNull(observer.error);
+        assertNotEquals(Thread.currentThread().getName(), observer.value);
+    }
+
+    @Test
+    @DisplayName("dispatch rejects with RESOURCE_EXHAUSTED when the queue is full")
+    @Tag("GRPc")
+    @Tag("Negative")
+    public void testDispatchRejectsWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver<String> running = new RecordingObserver<>();
+        RecordingObserver<String> queued = new RecordingObserver<>();
+        RecordingObserver<String> rejected = new RecordingObserver<>();
+
+        dispatcher.dispatch(running, () -> awaitQuietly(release));
+        dispatcher.dispatch(queued, () -> "queued");
+        dispatcher.dispatch(rejected, () -> "rejected");
+
+        assertTrue(rejected.done.await(1, TimeUnit.SECONDS));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, Status.fromThrowable(rejected.error).getCode());
+
+        release.countDown();
+        assertTrue(queued.done.await(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.value);
+    }
+
+    @Test
+    @DisplayName("dispatch maps unparsable input to INVALID_ARGUMENT")
+    @Tag("GRPc")
+    @Tag("Negative")
+    public void testDispatchMapsParseErrors() throws Exception {
+        RecordingObserver<String> observer = new RecordingObserver<>();
+
+        dispatcher.dispatch(observer, () -> {
+            throw new DateTimeParseException("bad date", "invalid", 0);
+        });
+
+        assertTrue(observer.done.await(5, TimeUnit.SECONDS));
+        assertEquals(Status.Code.INVALID_ARGUMENT, Status.fromThrowable(observer.error).getCode());
+    }
+
+    @Test
+    @DisplayName("dispatch gives the call's statements the remaining deadline as their query timeout")
+    @Tag("GRPc")
+    @Tag("Positive")
+    public void testDeadlineBecomesQueryTimeout() throws Exception {
+        FakeStatement statement = new FakeStatement();
+        DataSource dataSource = new StatementScopeDataSource(fakeDataSource(statement));
+        RecordingObserver<Integer> observer = new RecordingObserver<>();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Context.current().withDeadlineAfter(30, TimeUnit.SECONDS, scheduler).run(() ->
+                    dispatcher.dispatch(observer, () -> {
+                        try (Connection connection = dataSource.getConnection()) {
+                            connection.createStatement();
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        return statement.queryTimeout;
+                    }));
+
+            assertTrue(observer.done.await(5, TimeUnit.SECONDS));
+            assertNull(observer.error);
+            assertTrue(observer.value > 25 && observer.value <= 30, "timeout " + observer.value);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Cancelling the call cancels the statement the worker is blocked on")
+    @Tag("GRPc")
+    @Tag("Negative")
+    public void testCancelCancelsRunningStatement() throws Exception {
+        FakeStatement statement = new FakeStatement();
+        DataSource dataSource = new StatementScopeDataSource(fakeDataSource(statement));
+        RecordingObserver<String> observer = new RecordingObserver<>();
+        CountDownLatch executing = new CountDownLatch(1);
+
+        Context.CancellableContext call = Context.current().withCancellation();
+        call.run(() -> dispatcher.dispatch(observer, () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.createStatement();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            executing.countDown();
+            // Stands in for a blocking socket read: ignores the interrupt, only the statement cancel ends it
+            while (statement.cancelled.getCount() > 0) {
+                Thread.onSpinWait();
+            }
+            return "cancelled";
+        }));
+        assertTrue(executing.await(5, TimeUnit.SECONDS));
+        call.cancel(null);
+
+        assertTrue(statement.cancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    // A connection whose statements are all the given fake
+    private static DataSource fakeDataSource(FakeStatement statement) {
+        Statement proxy = (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{Statement.class}, (p, method, args) -> switch (method.getName()) {
+                    case "setQueryTimeout" -> {
+                        statement.queryTimeout = (Integer) args[0];
+                        yield null;
+                    }
+                    case "cancel" -> {
+                        statement.cancelled.countDown();
+                        yield null;
+                    }
+                    case "isClosed" -> false;
+                    case "hashCode" -> System.identityHashCode(p);
+                    case "equals" -> p == args[0];
+                    default -> null;
+                });
+        Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (p, method, args) ->
+                        method.getName().equals("createStatement") ? proxy : null);
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[]{DataSource.class}, (p, method, args) ->
+                        method.getName().equals("getConnection") ? connection : null);
+    }
+
+    private static class FakeStatement {
+        private final CountDownLatch cancelled = new CountDownLatch(1);
+        private volatile Integer queryTimeout;
+    }
+
+    private static String awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "running";
+    }
+
+    private static class RecordingObserver<T> implements StreamObserver<T> {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile T value;
+        private volatile Throwable error;
+
+        @Override
+        public void onNext(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            this.error = t;
+            done.countDown();
+        }
+
+        @Override
+        public void onCompleted() {
+            done.countDown();
+        }
+    }
+}
@@ -2,8 +2,13 @@ package com.example.zebraprj.grpc;
 
 import com.example.zebraprj.model.User;
 import com.example.zebraprj.AbstractPostgresTest;
+import com.example.zebraprj.idempotency.IdempotencyGrpcInterceptor;
 import com.example.zebraprj.repository.UserRepository;
+import com.google.protobuf.FieldMask;
+import io.grpc.Metadata;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.MetadataUtils;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.Tag;
@@ -12,6 +17,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -122,6 +131,50 @@ public class UserGrpcServiceImplTest extends AbstractPostgresTest {
         assertEquals(1,userRepository.count());
     }
 
+    @Test
+    @DisplayName("gRPC addUser retried with the same idempotency-key returns the original user, no conflict")
+    @Tag("GRPc")
+    @Tag("Positive")
+    public void testAddUserIdempotentRetry() {
+        Metadata metadata = new Metadata();
+        metadata.put(IdempotencyGrpcInterceptor.METADATA_KEY, UUID.randomUUID().toString());
+        UserGrpcServiceGrpc.UserGrpcServiceBlockingStub keyedStub =
+                stub.withInterceptors(MetadataUtils.newAttachHeadersInterceptor(metadata));
+        AddUserRequest request = AddUserRequest.newBuilder().setUser(UserMessage.newBuilder()
+                .setName("Retried")
+                .setEmail("retried@example.com")
+                .setBirthdate("1991-01-01")
+                .build()).build();
+
+        AddUserResponse first = keyedStub.addUser(request);
+        AddUserResponse retry = keyedStub.addUser(request);
+
+        assertTrue(retry.getErrorList().isEmpty());
+        assertEquals(first, retry);
+        assertEquals(1, userRepository.count());
+
+        AddUserRequest different = request.toBuilder()
+                .setUser(request.getUser().toBuilder().setEmail("other@example.com"))
+                .build();
+        StatusRuntimeException e = assertThrows(StatusRuntimeException.class, () -> keyedStub.addUser(different));
+        assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+    }
+
+    @Test
+    @DisplayName("gRPC searchUsers ranks the prefix match first")
+    @Tag("GRPc")
+    @Tag("Positive")
+    public void testSearchUsers() {
+        userRepository.save(new User(null, "Johanna", "johanna@example.com", LocalDate.of(1990, 1, 1)));
+        userRepository.save(new User(null, "Mary John", "mary@example.com", LocalDate.of(1991, 1, 1)));
+
+        SearchUsersResponse response = stub.searchUsers(SearchUsersRequest.newBuilder().setQuery("joh").build());
+
+        assertFalse(response.getMatchesList().isEmpty());
+        assertEquals("Johanna", response.getMatches(0).getUser().getName());
+        assertFalse(response.getHasMore());
+    }
+
     @Test
     @DisplayName("gRPC addUser with invalid birthdate throws exception")
     @Tag("GRPc")
@@ -168,4 +221,81 @@ public class UserGrpcServiceImplTest extends AbstractPostgresTest {
         assertEquals(0,userRepository.count());
     }
 
+    @Test
+    @DisplayName("gRPC getUsersByIds returns only the masked fields, in request order, and reports missing ids")
+    @Tag("GRPc")
+    @Tag("Positive")
+    public void testGetUsersByIds() {
+        User u1 = userRepository.save(new User(null, "User1", "u1@example.com", LocalDate.of(1990, 1, 1)));
+        User u2 = userRepository.save(new User(null, "User2", "u2@example.com", LocalDate.of(1991, 2, 2)));
+        long missing = u2.getId() + 1000;
+
+        GetUsersByIdsResponse response = stub.getUsersByIds(GetUsersByIdsRequest.newBuilder()
+                .addIds(u2.getId()).addIds(missing).addIds(u1.getId()).addIds(u2.getId())
+                .setFieldMask(FieldMask.newBuilder().addPaths("id").addPaths("email"))
+                .build());
+
+        assertEquals(2, response.getUsersCount());
+        assertEquals(UserMessage.newBuilder().setId(u2.getId()).setEmail("u2@example.com").build(),
+                response.getUsers(0));
+        assertEquals(u1.getId(), response.getUsers(1).getId());
+        assertEquals("", response.getUsers(1).getName());
+        assertEquals("", response.getUsers(1).getBirthdate());
+        assertEquals(List.of(missing), response.getMissingIdsList());
+
+        GetUsersByIdsResponse all = stub.getUsersByIds(GetUsersByIdsRequest.newBuilder().addIds(u1.getId()).build());
+        assertEquals("1990-01-01", all.getUsers(0).getBirthdate());
+        assertEquals("User1", all.getUsers(0).getName());
+    }
+
+    @Test
+    @DisplayName("gRPC getUsersByIds with an unknown field mask path fails with INVALID_ARGUMENT")
+    @Tag("GRPc")
+    @Tag("Negative")
+    public void testGetUsersByIdsUnknownPath() {
+        GetUsersByIdsRequest request = GetUsersByIdsRequest.newBuilder()
+                .addIds(1)
+                .setFieldMask(FieldMask.newBuilder().addPaths("password"))
+                .build();
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, () -> stub.getUsersByIds(request));
+        assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+    }
+
+    @Test
+    @DisplayName("gRPC watchUsers replays a committed addUser as a CREATED change")
+    @Tag("GRPc")
+    @Tag("Positive")
+    public void testWatchUsersReplaysCreatedUser() {
+        AddUserResponse added = stub.addUser(AddUserRequest.newBuilder().setUser(UserMessage.newBuilder()
+                .setName("Watched User")
+                .setEmail("watched@example.com")
+                .setBirthdate("2000-01-01")
+                .build()).build());
+
+        // after_sequence = 0 replays everything still buffered, including changes of earlier tests
+        Iterator<UserChangeMessage> changes = stub.withDeadlineAfter(5, TimeUnit.SECONDS)
+                .watchUsers(WatchUsersRequest.newBuilder().setAfterSequence(0).build());
+        UserChangeMessage change;
+        do {
+            change = changes.next();
+        } while (!change.getUser().getName().equals("Watched User"));
+
+        assertEquals(ChangeEntity.USER, change.getEntity());
+        assertEquals(ChangeType.CREATED, change.getType());
+        assertEquals(added.getUser().getId(), change.getUser().getId());
+        assertTrue(change.getSequence() > 0);
+    }
+
+    @Test
+    @DisplayName("gRPC watchUsers with an unknown resume position fails with OUT_OF_RANGE")
+    @Tag("GRPc")
+    @Tag("Negative")
+    public void testWatchUsersUnknownSequence() {
+        Iterator<UserChangeMessage> changes = stub.withDeadlineAfter(5, TimeUnit.SECONDS)
+                .watchUsers(WatchUsersRequest.newBuilder().setAfterSequence(Long.MAX_VALUE).build());
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class, changes::hasNext);
+        assertEquals(Status.Code.OUT_OF_RANGE, exception.getStatus().getCode());
+    }
 }
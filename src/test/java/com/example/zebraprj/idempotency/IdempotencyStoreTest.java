@@ -0,0 +1,118 @@
+package com.example.zebraprj.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyStoreTest {
+
+    private static final byte[] BODY = "[{\"name\":\"Alice\"}]".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    private IdempotencyStore store(int maxEntries, Duration ttl) {
+        return new IdempotencyStore(new IdempotencyProperties(true, maxEntries, ttl), new SimpleMeterRegistry(), now::get);
+    }
+
+    private String write(IdempotencyStore store, String key) {
+        return store.execute("POST /users", "10.0.0.1", key, BODY, () -> "result-" + writes.incrementAndGet());
+    }
+
+    @Test
+    @DisplayName("Retry with the same key returns the stored result without running the write")
+    @Tag("Positive")
+    public void testRetryIsReplayed() {
+        IdempotencyStore store = store(10, Duration.ofMinutes(1));
+
+        assertEquals("result-1", write(store, "a"));
+        assertEquals("result-1", write(store, "a"));
+        assertEquals("result-2", write(store, "b"));
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    @DisplayName("Requests without a key always run")
+    @Tag("Positive")
+    public void testNoKeyRunsEveryTime() {
+        IdempotencyStore store = store(10, Duration.ofMinutes(1));
+
+        write(store, null);
+        write(store, " ");
+
+        assertEquals(2, writes.get());
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Same key with a different request body is rejected")
+    @Tag("Negative")
+    public void testKeyReuseWithDifferentBody() {
+        IdempotencyStore store = store(10, Duration.ofMinutes(1));
+        write(store, "a");
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> store.execute("POST /users", "10.0.0.1", "a", "[]".getBytes(StandardCharsets.UTF_8),
+                        () -> "other"));
+    }
+
+    @Test
+    @DisplayName("Bodies with equal 32-bit hash codes are still told apart")
+    @Tag("Negative")
+    public void testHashCodeCollisionIsRejected() {
+        IdempotencyStore store = store(10, Duration.ofMinutes(1));
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        store.execute("POST /users", "10.0.0.1", "a", "Aa".getBytes(StandardCharsets.UTF_8), () -> "first");
+
+        assertThrows(IdempotencyKeyReuseException.class, () -> store.execute("POST /users", "10.0.0.1", "a",
+                "BB".getBytes(StandardCharsets.UTF_8), () -> "second"));
+    }
+
+    @Test
+    @DisplayName("The same key from another client is a separate request")
+    @Tag("Positive")
+    public void testKeyIsScopedToClient() {
+        IdempotencyStore store = store(10, Duration.ofMinutes(1));
+        write(store, "a");
+
+        assertEquals("result-2", store.execute("POST /users", "10.0.0.2", "a", BODY,
+                () -> "result-" + writes.incrementAndGet()));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("Entries expire after the TTL and the oldest are dropped above maxEntries")
+    @Tag("Positive")
+    public void testTtlAndSizeBound() {
+        IdempotencyStore store = store(2, Duration.ofSeconds(10));
+        write(store, "a");
+        write(store, "b");
+        write(store, "c"); // drops "a"
+        assertEquals(2, store.size());
+        assertEquals("result-4", write(store, "a"));
+
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertEquals("result-5", write(store, "b"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Failed writes are not stored, so the next retry runs again")
+    @Tag("Negative")
+    public void testFailureIsNotStored() {
+        IdempotencyStore store = store(10, Duration.ofMinutes(1));
+
+        assertThrows(IllegalStateException.class, () -> store.execute("POST /users", "10.0.0.1", "a", BODY, () -> {
+            throw new IllegalStateException("database down");
+        }));
+        assertEquals("result-1", write(store, "a"));
+    }
+}
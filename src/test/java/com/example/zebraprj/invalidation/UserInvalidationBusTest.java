@@ -0,0 +1,123 @@
+package com.example.zebraprj.invalidation;
+
+import com.example.zebraprj.AbstractPostgresTest;
+import com.example.zebraprj.ZebraPrjApplication;
+import com.example.zebraprj.cache.UsersSnapshotCache;
+import com.example.zebraprj.model.User;
+import com.example.zebraprj.repository.UserRepository;
+import com.example.zebraprj.service.UserRecordOperations;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two application contexts ("nodes") on one Postgres container: a write on one node must evict the
+// other node's users snapshot through LISTEN/NOTIFY, also after the listener connection was killed.
+public class UserInvalidationBusTest extends AbstractPostgresTest {
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        if (nodeA != null) {
+            nodeA.close();
+        }
+        if (nodeB != null) {
+            nodeB.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startNode(String name) {
+        return new SpringApplicationBuilder(ZebraPrjApplication.class)
+                .properties(
+                        "spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                        "spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "server.port=0",
+                        "grpc.server.port=-1",
+                        "grpc.server.in-process-name=" + name,
+                        "zebra.invalidation.poll-timeout=200ms",
+                        "zebra.invalidation.reconnect-min-backoff=100ms")
+                .run();
+    }
+
+    @BeforeEach
+    void setUp() {
+        nodeA.getBean(UserRepository.class).deleteAll();
+        await("listeners connected", () -> nodeA.getBean(UserInvalidationListener.class).isConnected()
+                && nodeB.getBean(UserInvalidationListener.class).isConnected());
+    }
+
+    @Test
+    @DisplayName("Delete on node A evicts node B's users snapshot")
+    @Tag("Positive")
+    public void testDeleteOnOtherNodeEvictsSnapshot() {
+        User user = nodeA.getBean(UserRepository.class)
+                .save(new User(null, "Shared", "shared@example.com", LocalDate.of(1990, 1, 1)));
+        UsersSnapshotCache cacheB = nodeB.getBean(UsersSnapshotCache.class);
+        await("node B sees the insert", () -> cacheB.current().users().stream().anyMatch(u -> u.getId().equals(user.getId())));
+
+        assertTrue(nodeA.getBean(UserRecordOperations.class).deleteIfExists(user.getId()));
+
+        await("node B snapshot evicted", () -> cacheB.peek() == null);
+        assertTrue(cacheB.current().users().stream().noneMatch(u -> u.getId().equals(user.getId())));
+    }
+
+    @Test
+    @DisplayName("Listener reconnects after its connection is terminated and keeps receiving invalidations")
+    @Tag("Positive")
+    public void testListenerReconnects() {
+        UserInvalidationListener listenerB = nodeB.getBean(UserInvalidationListener.class);
+        UsersSnapshotCache cacheB = nodeB.getBean(UsersSnapshotCache.class);
+        JdbcTemplate admin = new JdbcTemplate(nodeA.getBean(DataSource.class));
+        List<Integer> killed = admin.queryForList(
+                "SELECT pid FROM pg_stat_activity WHERE application_name = ?", Integer.class, UserInvalidationListener.APPLICATION_NAME);
+        assertEquals(2, killed.size());
+
+        admin.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                UserInvalidationListener.APPLICATION_NAME);
+        await("both listeners reconnected with new sessions", () -> admin.queryForList(
+                        "SELECT pid FROM pg_stat_activity WHERE application_name = ?", Integer.class,
+                        UserInvalidationListener.APPLICATION_NAME).stream().filter(pid -> !killed.contains(pid)).count() == 2
+                && listenerB.isConnected());
+
+        cacheB.current();
+        nodeA.getBean(UserRepository.class).save(new User(null, "After Reconnect", "after@example.com", LocalDate.of(1990, 1, 1)));
+        await("node B snapshot evicted after reconnect", () -> cacheB.peek() == null);
+    }
+
+    private static void await(String what, BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting until " + what);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted waiting until " + what);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.zebraprj.load;
+
+import java.util.Arrays;
+
+// Raw latency samples of one worker for one operation. Workers never share an instance,
+// results are merged once the run is over, so recording is a plain array write.
+class LatencyStats {
+    private long[] samplesNanos = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long nanos) {
+        if (count == samplesNanos.length) {
+            samplesNanos = Arrays.copyOf(samplesNanos, count * 2);
+        }
+        samplesNanos[count++] = nanos;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    void merge(LatencyStats other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samplesNanos[i]);
+        }
+        errors += other.errors;
+    }
+
+    long count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    // Nearest-rank percentile in milliseconds, call only after all merges are done
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samplesNanos, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, Math.min(count, rank) - 1)] / 1_000_000.0;
+    }
+}
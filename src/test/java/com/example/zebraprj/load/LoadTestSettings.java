@@ -0,0 +1,58 @@
+package com.example.zebraprj.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Load test knobs, all overridable with -D system properties, e.g.
+// mvn -Pload-test test -Dload.duration=120 -Dload.concurrency=64 -Dload.mix=list=70,insert=10,grpc=20
+record LoadTestSettings(Duration warmup,
+                        Duration duration,
+                        int concurrency,
+                        Map<Operation, Integer> mix,
+                        long sloP99Millis,
+                        long sloP999Millis,
+                        double sloMaxErrorRate,
+                        double sloMinThroughput) {
+
+    enum Operation {
+        INSERT,          // POST /users with one new user
+        LIST,            // GET /users
+        DELETE,          // GET /deleteuser/{id} of a user inserted earlier
+        PROPERTY,        // POST /userproperty
+        GRPC_ADD,        // gRPC AddUser
+        GRPC_LIST        // gRPC GetUsers
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Duration.ofSeconds(Long.getLong("load.warmup", 5)),
+                Duration.ofSeconds(Long.getLong("load.duration", 30)),
+                Integer.getInteger("load.concurrency", 16),
+                parseMix(System.getProperty("load.mix",
+                        "insert=20,list=35,delete=10,property=15,grpc_add=5,grpc_list=15")),
+                Long.getLong("load.slo.p99", 250),
+                Long.getLong("load.slo.p999", 1000),
+                Double.parseDouble(System.getProperty("load.slo.errorRate", "0.01")),
+                Double.parseDouble(System.getProperty("load.slo.throughput", "50")));
+    }
+
+    // "insert=20,list=35" -> relative weights, operations not mentioned are not executed
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix does not enable any operation");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.zebraprj.load;
+
+import com.example.zebraprj.grpc.AddUserRequest;
+import com.example.zebraprj.grpc.AddUserResponse;
+import com.example.zebraprj.grpc.GetUsersRequest;
+import com.example.zebraprj.grpc.UserGrpcServiceGrpc;
+import com.example.zebraprj.grpc.UserMessage;
+import com.example.zebraprj.load.LoadTestSettings.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Mixed REST/gRPC load against the full application with Testcontainers Postgres and Mongo.
+// Excluded from the default build, run with: mvn -Pload-test test (knobs in LoadTestSettings).
+// Writes target/load-report.txt and fails if any SLO threshold is missed.
+@Tag("Load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "zebra.ratelimit.enabled=false" // Measure capacity, not the limiter
+})
+class MixedTrafficLoadTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.5");
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static final int GRPC_PORT = freePort();
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getConnectionString);
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("grpc.server.port", () -> GRPC_PORT);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ConcurrentLinkedQueue<Long> insertedIds = new ConcurrentLinkedQueue<>();
+    private ManagedChannel channel;
+    private UserGrpcServiceGrpc.UserGrpcServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() {
+        channel = ManagedChannelBuilder.forAddress("localhost", GRPC_PORT).usePlaintext().build();
+        stub = UserGrpcServiceGrpc.newBlockingStub(channel);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Mixed REST/gRPC traffic meets throughput, latency and error-rate SLOs")
+    void testMixedTrafficMeetsSlo() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        long measureFrom = System.nanoTime() + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        List<Future<Map<Operation, LatencyStats>>> results = new ArrayList<>();
+        for (int i = 0; i < settings.concurrency(); i++) {
+            results.add(workers.submit(() -> runWorker(settings, measureFrom, end)));
+        }
+
+        Map<Operation, LatencyStats> merged = new EnumMap<>(Operation.class);
+        for (Future<Map<Operation, LatencyStats>> result : results) {
+            result.get().forEach((operation, stats) ->
+                    merged.computeIfAbsent(operation, k -> new LatencyStats()).merge(stats));
+        }
+        workers.shutdown();
+
+        String report = report(settings, merged);
+        System.out.println(report);
+        Files.writeString(Path.of("target", "load-report.txt"), report);
+        assertSlo(settings, merged);
+    }
+
+    private Map<Operation, LatencyStats> runWorker(LoadTestSettings settings, long measureFrom, long end) {
+        Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        int totalWeight = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < end) {
+            Operation operation = pick(settings.mix(), totalWeight);
+            if (operation == Operation.DELETE && insertedIds.isEmpty()) {
+                operation = Operation.INSERT; // Nothing to delete yet
+            }
+
+            long began = System.nanoTime();
+            boolean ok;
+            try {
+                ok = execute(operation);
+            } catch (Exception e) {
+                ok = false;
+            }
+            long elapsed = System.nanoTime() - began;
+
+            if (began >= measureFrom) {
+                LatencyStats operationStats = stats.computeIfAbsent(operation, k -> new LatencyStats());
+                if (ok) {
+                    operationStats.record(elapsed);
+                } else {
+                    operationStats.recordError();
+                }
+            }
+        }
+        return stats;
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed during the run");
+    }
+
+    private boolean execute(Operation operation) throws Exception {
+        String unique = UUID.randomUUID().toString();
+        switch (operation) {
+            case INSERT -> {
+                HttpResponse<String> response = post("/users", "[{\"name\":\"load-" + unique + "\",\"email\":\""
+                        + unique + "@load.test\",\"birthdate\":\"1990-01-01\"}]");
+                if (response.statusCode() != 200) {
+                    return false;
+                }
+                insertedIds.add(objectMapper.readTree(response.body()).path("addedUsers").path(0).path("id").asLong());
+                return true;
+            }
+            case LIST -> {
+                return get("/users").statusCode() == 200;
+            }
+            case DELETE -> {
+                Long id = insertedIds.poll();
+                return id == null || get("/deleteuser/" + id).statusCode() == 200;
+            }
+            case PROPERTY -> {
+                return post("/userproperty", "{\"userId\":\"" + unique + "\",\"address\":\"Load St\","
+                        + "\"organisation\":\"Load\",\"favouriteColour\":\"grey\"}").statusCode() == 200;
+            }
+            case GRPC_ADD -> {
+                AddUserResponse response = stub.withDeadlineAfter(5, TimeUnit.SECONDS)
+                        .addUser(AddUserRequest.newBuilder().setUser(UserMessage.newBuilder()
+                                .setName("grpc-" + unique)
+                                .setEmail(unique + "@grpc.load.test")
+                                .setBirthdate("1990-01-01")
+                                .build()).build());
+                if (response.getErrorCount() > 0) {
+                    return false;
+                }
+                insertedIds.add(response.getUser().getId());
+                return true;
+            }
+            case GRPC_LIST -> {
+                stub.withDeadlineAfter(5, TimeUnit.SECONDS).getUsers(GetUsersRequest.newBuilder().build());
+                return true;
+            }
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private String report(LoadTestSettings settings, Map<Operation, LatencyStats> stats) {
+        double seconds = settings.duration().toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder()
+                .append(String.format("Load test: %d workers, %ds measured after %ds warmup, mix %s%n",
+                        settings.concurrency(), settings.duration().toSeconds(), settings.warmup().toSeconds(),
+                        settings.mix()))
+                .append(String.format("%-10s %9s %7s %10s %9s %9s %9s%n",
+                        "operation", "ok", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms"));
+        long ok = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, LatencyStats> entry : stats.entrySet()) {
+            LatencyStats s = entry.getValue();
+            ok += s.count();
+            errors += s.errors();
+            report.append(String.format("%-10s %9d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), s.count(), s.errors(), s.count() / seconds,
+                    s.percentileMillis(50), s.percentileMillis(99), s.percentileMillis(99.9)));
+        }
+        report.append(String.format("%-10s %9d %7d %10.1f%n", "TOTAL", ok, errors, ok / seconds));
+
+        // Connection pool behaviour over the whole run, to compare pool / driver settings between runs
+        for (Timer acquire : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            String pool = acquire.getId().getTag("pool");
+            double timeouts = meterRegistry.get("hikaricp.connections.timeout").tag("pool", pool).counter().count();
+            report.append(String.format("Pool %s: %d acquisitions, mean %.3f ms, max %.3f ms, %d timeouts%n",
+                    pool, acquire.count(), acquire.mean(TimeUnit.MILLISECONDS), acquire.max(TimeUnit.MILLISECONDS),
+                    (long) timeouts));
+        }
+        return report
+                .append(String.format("SLO: p99 <= %dms, p999 <= %dms, error rate <= %.2f%%, throughput >= %.1f ops/s%n",
+                        settings.sloP99Millis(), settings.sloP999Millis(),
+                        settings.sloMaxErrorRate() * 100, settings.sloMinThroughput()))
+                .toString();
+    }
+
+    private void assertSlo(LoadTestSettings settings, Map<Operation, LatencyStats> stats) {
+        long ok = stats.values().stream().mapToLong(LatencyStats::count).sum();
+        long errors = stats.values().stream().mapToLong(LatencyStats::errors).sum();
+        double seconds = settings.duration().toMillis() / 1000.0;
+
+        SoftAssertions slo = new SoftAssertions();
+        slo.assertThat(ok / seconds).as("throughput ops/s").isGreaterThanOrEqualTo(settings.sloMinThroughput());
+        slo.assertThat((double) errors / Math.max(1, ok + errors)).as("error rate")
+                .isLessThanOrEqualTo(settings.sloMaxErrorRate());
+        stats.forEach((operation, s) -> {
+            slo.assertThat(s.percentileMillis(99)).as(operation + " p99 ms")
+                    .isLessThanOrEqualTo(settings.sloP99Millis());
+            slo.assertThat(s.percentileMillis(99.9)).as(operation + " p999 ms")
+                    .isLessThanOrEqualTo(settings.sloP999Millis());
+        });
+        slo.assertAll();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return httpClient.send(request(path).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        return httpClient.send(request(path)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(10));
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.zebraprj.load;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The write and read paths of UserRecordOperations / UserKeyLookup as plain SQL, against the unpartitioned
+// table (global unique indexes) and db/partitioned-users.sql, each in its own schema of one container.
+// Run with: mvn -Pload-test test -Dtest=PartitionedUsersBenchmarkTest [-Dbench.rows=200000 -Dbench.lookups=100000]
+// Writes target/partition-benchmark.txt; the numbers are for comparison on one machine, nothing is asserted on them.
+@Tag("Load")
+@Testcontainers
+class PartitionedUsersBenchmarkTest {
+    private static final int CHUNK = 500; // zebra.batch.chunk-size
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private record Layout(String name, JdbcTemplate jdbc, TransactionTemplate tx, String nameExists, String emailExists) {
+    }
+
+    private record Result(String layout, double insertsPerSecond, double lookupsPerSecond) {
+    }
+
+    @Test
+    @DisplayName("Insert and lookup throughput, unpartitioned vs hash-partitioned users")
+    void compareLayouts() throws IOException {
+        int rows = Integer.getInteger("bench.rows", 50_000);
+        int lookups = Integer.getInteger("bench.lookups", 50_000);
+
+        Layout plain = layout("bench_plain",
+                "SELECT EXISTS (SELECT 1 FROM users WHERE name = ?)",
+                "SELECT EXISTS (SELECT 1 FROM users WHERE email = ?)");
+        plain.jdbc().execute("CREATE TABLE users (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL UNIQUE, email VARCHAR(255) NOT NULL UNIQUE, birthdate DATE NOT NULL)");
+
+        Layout partitioned = layout("bench_partitioned",
+                "SELECT EXISTS (SELECT 1 FROM user_names WHERE name = ?)",
+                "SELECT EXISTS (SELECT 1 FROM user_emails WHERE email = ?)");
+        partitioned.jdbc().execute((ConnectionCallback<Void>) connection -> {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/partitioned-users.sql"));
+            return null;
+        });
+
+        List<Result> results = new ArrayList<>();
+        for (Layout layout : List.of(plain, partitioned)) {
+            double inserts = insert(layout, rows);
+            layout.jdbc().execute("ANALYZE");
+            results.add(new Result(layout.name(), inserts, lookup(layout, rows, lookups)));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%d rows, %d lookups, chunks of %d%n", rows, lookups, CHUNK));
+        report.append(String.format("%-20s %15s %15s%n", "layout", "inserts/s", "lookups/s"));
+        for (Result result : results) {
+            report.append(String.format("%-20s %15.0f %15.0f%n",
+                    result.layout(), result.insertsPerSecond(), result.lookupsPerSecond()));
+        }
+        System.out.print(report);
+        Path reportFile = Path.of("target", "partition-benchmark.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        assertThat(plain.jdbc().queryForObject("SELECT count(*) FROM users", Long.class)).isEqualTo(rows);
+        assertThat(partitioned.jdbc().queryForObject("SELECT count(*) FROM user_names", Long.class)).isEqualTo(rows);
+    }
+
+    private static Layout layout(String schema, String nameExists, String emailExists) {
+        SingleConnectionDataSource admin = dataSource(null);
+        new JdbcTemplate(admin).execute("CREATE SCHEMA " + schema);
+        admin.destroy();
+        SingleConnectionDataSource dataSource = dataSource(schema);
+        return new Layout(schema, new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), nameExists, emailExists);
+    }
+
+    // One connection per layout, so the numbers are query time rather than connection setup
+    private static SingleConnectionDataSource dataSource(String schema) {
+        String url = postgres.getJdbcUrl() + (schema == null ? "" : "&currentSchema=" + schema);
+        return new SingleConnectionDataSource(url, postgres.getUsername(), postgres.getPassword(), true);
+    }
+
+    // Same steps as UserRecordOperations.add per row, one transaction per chunk like ChunkedBatchExecutor
+    private static double insert(Layout layout, int rows) {
+        long start = System.nanoTime();
+        for (int first = 0; first < rows; first += CHUNK) {
+            int from = first;
+            int to = Math.min(rows, first + CHUNK);
+            layout.tx().executeWithoutResult(status -> {
+                for (int i = from; i < to; i++) {
+                    String name = "User " + i;
+                    String email = "user" + i + "@example.com";
+                    if (exists(layout, layout.nameExists(), name) || exists(layout, layout.emailExists(), email)) {
+                        throw new IllegalStateException("Unexpected duplicate " + name);
+                    }
+                    layout.jdbc().update("INSERT INTO users (name, email, birthdate) VALUES (?, ?, ?)",
+                            name, email, Date.valueOf(LocalDate.of(1990, 1, 1).plusDays(i % 10_000)));
+                }
+            });
+        }
+        return rows / seconds(start);
+    }
+
+    // Name / email existence checks (the add path) and fetches by id (deletes by id), in equal parts
+    private static double lookup(Layout layout, int rows, int lookups) {
+        long[] ids = layout.jdbc().queryForList("SELECT id FROM users", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            int row = random.nextInt(rows);
+            switch (i % 3) {
+                case 0 -> assertThat(exists(layout, layout.nameExists(), "User " + row)).isTrue();
+                case 1 -> assertThat(exists(layout, layout.emailExists(), "user" + row + "@example.com")).isTrue();
+                default -> layout.jdbc().queryForMap("SELECT id, name, email, birthdate FROM users WHERE id = ?",
+                        ids[random.nextInt(ids.length)]);
+            }
+        }
+        return lookups / seconds(start);
+    }
+
+    private static boolean exists(Layout layout, String sql, String key) {
+        return Boolean.TRUE.equals(layout.jdbc().queryForObject(sql, Boolean.class, key));
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+}
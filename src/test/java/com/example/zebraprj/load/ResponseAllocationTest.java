@@ -0,0 +1,97 @@
+package com.example.zebraprj.load;
+
+import com.example.zebraprj.dto.DeleteInstruction;
+import com.example.zebraprj.dto.DeleteUsersResponse;
+import com.example.zebraprj.dto.RecordStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bytes allocated per POST /deleteuser request body -> response body, with the database left out:
+// the old Map / String message handling against the typed DeleteInstruction / RecordStatus records.
+// Run with: mvn -Pload-test test -Dtest=ResponseAllocationTest
+@Tag("Load")
+class ResponseAllocationTest {
+
+    private static final int RECORDS = 100;
+    private static final int WARMUP = 5_000;
+    private static final int MEASURED = 20_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    @DisplayName("Typed delete response allocates less per request than the map/string version")
+    void typedResponseAllocatesLess() throws Exception {
+        byte[] body = requestBody();
+
+        long legacy = bytesPerRequest(() -> legacy(body));
+        long typed = bytesPerRequest(() -> typed(body));
+
+        System.out.printf("POST /deleteuser with %d records: legacy %d B/request, typed %d B/request (%.0f%%)%n",
+                RECORDS, legacy, typed, 100.0 * typed / legacy);
+        assertThat(typed).isLessThan(legacy);
+    }
+
+    private byte[] legacy(byte[] body) throws Exception {
+        List<Map<String, Object>> requestList = objectMapper.readValue(body, new TypeReference<>() {
+        });
+        List<String> deleted = new ArrayList<>();
+        for (Map<String, Object> entity : requestList) {
+            Long id = Long.valueOf(entity.get("id").toString());
+            deleted.add("User with ID " + id + " deleted successfully");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("deleted", deleted);
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    private byte[] typed(byte[] body) throws Exception {
+        List<DeleteInstruction> requestList = objectMapper.readValue(body, new TypeReference<>() {
+        });
+        List<RecordStatus> deleted = new ArrayList<>(requestList.size());
+        for (int i = 0; i < requestList.size(); i++) {
+            deleted.add(RecordStatus.ofId(i, RecordStatus.Code.DELETED, requestList.get(i).id()));
+        }
+        return objectMapper.writeValueAsBytes(new DeleteUsersResponse(deleted, List.of()));
+    }
+
+    private long bytesPerRequest(ThrowingSupplier request) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += request.get().length;
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED; i++) {
+            sink += request.get().length;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertThat(sink).isPositive(); // keeps the responses observable
+        return allocated / MEASURED;
+    }
+
+    private byte[] requestBody() throws Exception {
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (long id = 1; id <= RECORDS; id++) {
+            records.add(Map.of("id", 1_000_000 + id));
+        }
+        return objectMapper.writeValueAsBytes(records);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier {
+        byte[] get() throws Exception;
+    }
+}
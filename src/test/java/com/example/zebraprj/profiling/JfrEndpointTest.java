@@ -0,0 +1,107 @@
+package com.example.zebraprj.profiling;
+
+import com.example.zebraprj.AbstractPostgresTest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "grpc.server.in-process-name=jfr-test",
+        "grpc.server.port=-1",
+        "management.endpoints.web.exposure.include=health,jfr",
+        "zebra.jfr.default-settings=default"
+})
+class JfrEndpointTest extends AbstractPostgresTest {
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+    }
+
+    @Test
+    @DisplayName("A recording started over /actuator/jfr contains the batch event of POST /users")
+    @Tag("Positive")
+    void testRecordingContainsBatchEvent() throws Exception {
+        long id = given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("maxDuration", "PT1M"))
+        .when()
+                .post("/actuator/jfr")
+        .then()
+                .statusCode(200)
+                .body("state", equalTo("RUNNING"))
+                .extract().jsonPath().getLong("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .header("traceparent", "00-" + TRACE_ID + "-b7ad6b7169203331-01")
+                .body(List.of(
+                        Map.of("name", "Jfr One", "email", "jfr1@example.com", "birthdate", "2001-01-01"),
+                        Map.of("name", "Jfr Two", "email", "jfr2@example.com", "birthdate", "2001-01-01")))
+        .when()
+                .post("/users")
+        .then()
+                .statusCode(200);
+
+        given().post("/actuator/jfr/" + id).then().statusCode(200).body("state", equalTo("STOPPED"));
+
+        byte[] jfr = given().get("/actuator/jfr/" + id).then().statusCode(200).extract().asByteArray();
+        Path file = Files.createTempFile("jfr-endpoint-test", ".jfr");
+        try {
+            Files.write(file, jfr);
+            List<RecordedEvent> batches = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("zebra.UserBatch"))
+                    .filter(event -> "addUsers".equals(event.getString("operation")))
+                    .toList();
+            assertThat(batches).hasSize(1);
+            RecordedEvent batch = batches.get(0);
+            assertThat(batch.getInt("batchSize")).isEqualTo(2);
+            assertThat(batch.getInt("succeeded")).isEqualTo(2);
+            assertThat(batch.getLong("dbRoundTrips")).isPositive();
+            assertThat(batch.getString("traceId")).isEqualTo(TRACE_ID);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        given().delete("/actuator/jfr/" + id).then().statusCode(204);
+        given().get("/actuator/jfr/" + id).then().statusCode(404);
+    }
+
+    @Test
+    @DisplayName("POST /actuator/jfr - unknown settings are rejected")
+    @Tag("Negative")
+    void testUnknownSettings() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("settings", "no-such-settings"))
+        .when()
+                .post("/actuator/jfr")
+        .then()
+                .statusCode(400)
+                .body("error", equalTo("Unknown settings 'no-such-settings', use 'default' or 'profile'"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.zebraprj.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ClientRateLimiter limiter(long recordsPerSecond, long burst, int maxConcurrent) {
+        return new ClientRateLimiter(
+                new RateLimitProperties(true, recordsPerSecond, burst, maxConcurrent, DataSize.ofMegabytes(1),
+                        DataSize.ofKilobytes(16)),
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("List requests are weighted by their record count")
+    @Tag("Negative")
+    public void testWeightedRequestDrainsBucket() {
+        ClientRateLimiter limiter = limiter(1, 100, 10);
+
+        try (ClientRateLimiter.Permit big = limiter.tryAcquire("loader", "POST /users", 90)) {
+            assertTrue(big.granted());
+        }
+        try (ClientRateLimiter.Permit next = limiter.tryAcquire("loader", "POST /users", 20)) {
+            assertFalse(next.granted());
+            assertTrue(next.retryAfterSeconds() >= 1);
+        }
+        assertEquals(1.0, meterRegistry.counter("zebra.ratelimit.rejected", "reason", "rate").count());
+    }
+
+    @Test
+    @DisplayName("Clients and endpoints have independent buckets")
+    @Tag("Positive")
+    public void testBucketsAreIsolated() {
+        ClientRateLimiter limiter = limiter(1, 10, 10);
+
+        limiter.tryAcquire("greedy", "POST /users", 10).close();
+
+        assertFalse(limiter.tryAcquire("greedy", "POST /users", 1).granted());
+        assertTrue(limiter.tryAcquire("greedy", "GET /users", 1).granted());
+        assertTrue(limiter.tryAcquire("polite", "POST /users", 1).granted());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests per client are capped until permits are closed")
+    @Tag("Negative")
+    public void testConcurrencyLimit() {
+        ClientRateLimiter limiter = limiter(1000, 1000, 2);
+
+        ClientRateLimiter.Permit first = limiter.tryAcquire("client", "GET /users", 1);
+        ClientRateLimiter.Permit second = limiter.tryAcquire("client", "GET /users", 1);
+        assertFalse(limiter.tryAcquire("client", "GET /users", 1).granted());
+
+        first.close();
+        first.close(); // Closing twice must not free two slots
+        assertTrue(limiter.tryAcquire("client", "GET /users", 1).granted());
+        assertFalse(limiter.tryAcquire("client", "GET /users", 1).granted());
+        second.close();
+    }
+
+    @Test
+    @DisplayName("The concurrency slot is taken before the weight is known and stays with the caller")
+    @Tag("Negative")
+    public void testSlotBeforeTokens() {
+        ClientRateLimiter limiter = limiter(1, 10, 1);
+
+        try (ClientRateLimiter.Permit slot = limiter.tryAcquireSlot("client")) {
+            assertTrue(slot.granted());
+            assertFalse(limiter.tryAcquireSlot("client").granted());
+            assertTrue(limiter.tryConsume("client", "POST /users", 10).granted());
+            assertFalse(limiter.tryConsume("client", "POST /users", 1).granted());
+        }
+        assertTrue(limiter.tryAcquireSlot("client").granted());
+    }
+
+    @Test
+    @DisplayName("Eviction forgets idle clients but keeps a client's slots while a request is in flight")
+    @Tag("Positive")
+    public void testEvictionKeepsBusyClients() {
+        ClientRateLimiter limiter = limiter(1000, 1000, 1);
+
+        limiter.tryAcquire("idle", "GET /users", 1).close();
+        ClientRateLimiter.Permit busy = limiter.tryAcquire("busy", "GET /users", 1);
+        limiter.evictIdleClients();
+
+        assertEquals(1, limiter.trackedClients());
+        assertFalse(limiter.tryAcquire("busy", "GET /users", 1).granted());
+        busy.close();
+        limiter.evictIdleClients();
+        assertEquals(0, limiter.trackedClients());
+    }
+
+    @Test
+    @DisplayName("Oversized requests are charged the whole bucket instead of being rejected forever")
+    @Tag("Positive")
+    public void testOversizedRequestPassesWhenBucketIsFull() {
+        ClientRateLimiter limiter = limiter(10, 100, 10);
+
+        assertTrue(limiter.tryAcquire("loader", "POST /users", 50_000).granted());
+        assertFalse(limiter.tryAcquire("loader", "POST /users", 1).granted());
+    }
+}
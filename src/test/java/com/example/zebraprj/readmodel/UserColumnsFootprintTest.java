@@ -0,0 +1,74 @@
+package com.example.zebraprj.readmodel;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Heap retained per user by the read model (columns, indexes and the name / email strings themselves)
+// and the latency of the lookups behind GET /users and /crazy, without the database or HTTP in between.
+// Run with: mvn -Pload-test test -Dtest=UserColumnsFootprintTest [-Dbench.users=1000000]
+// Writes target/read-model-footprint.txt.
+@Tag("Load")
+class UserColumnsFootprintTest {
+    private static final LocalDate BIRTHDATE = LocalDate.of(1990, 1, 1);
+
+    @Test
+    @DisplayName("Read model heap per user and lookup latency")
+    void measure() throws IOException {
+        int users = Integer.getInteger("bench.users", 500_000);
+
+        long before = usedHeapAfterGc();
+        UserColumns columns = new UserColumns(1024);
+        for (int i = 1; i <= users; i++) {
+            columns.upsert(i, "User Number " + i, "user.number." + i + "@example.com", BIRTHDATE.plusDays(i % 20_000));
+        }
+        long bytesPerUser = (usedHeapAfterGc() - before) / users;
+
+        int lookups = 200_000;
+        long[] nanos = new long[lookups];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int warmup = 0; warmup < lookups; warmup++) {
+            columns.findByName("User Number " + (1 + random.nextInt(users)));
+        }
+        for (int i = 0; i < lookups; i++) {
+            String name = "User Number " + (1 + random.nextInt(users));
+            long start = System.nanoTime();
+            assertThat(columns.findByName(name)).hasSize(1);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long findAllStart = System.nanoTime();
+        assertThat(columns.findAll()).hasSize(users);
+        long findAllMillis = (System.nanoTime() - findAllStart) / 1_000_000;
+
+        String report = String.format("%d users: %d B/user retained, findByName p50 %d ns, p99 %d ns, p999 %d ns, "
+                        + "findAll %d ms%n", users, bytesPerUser, nanos[lookups / 2], nanos[lookups * 99 / 100],
+                nanos[lookups * 999 / 1000], findAllMillis);
+        System.out.print(report);
+        Path reportFile = Path.of("target", "read-model-footprint.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        assertThat(columns.size()).isEqualTo(users); // Keeps the columns reachable until after the measurement
+        assertThat(nanos[lookups * 99 / 100]).isLessThan(1_000_000L);
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
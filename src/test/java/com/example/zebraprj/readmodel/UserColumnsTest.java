@@ -0,0 +1,71 @@
+package com.example.zebraprj.readmodel;
+
+import com.example.zebraprj.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserColumnsTest {
+    private static final LocalDate BIRTHDATE = LocalDate.of(1990, 1, 1);
+
+    private final UserColumns columns = new UserColumns(4);
+
+    @Test
+    @DisplayName("Upsert replaces the row and moves the name index to the new name")
+    @Tag("Positive")
+    void testUpsert() {
+        columns.upsert(1, "Alice", "alice@example.com", BIRTHDATE);
+        columns.upsert(1, "Alice Smith", "alice@example.com", BIRTHDATE.plusDays(1));
+
+        assertThat(columns.size()).isEqualTo(1);
+        assertThat(columns.findByName("Alice")).isEmpty();
+        assertThat(columns.findByName("Alice Smith")).singleElement()
+                .satisfies(user -> assertThat(user.getBirthdate()).isEqualTo(BIRTHDATE.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("A name handed to another user before the old owner's change arrives stays with the new owner")
+    @Tag("Positive")
+    void testOutOfOrderNameHandover() {
+        columns.upsert(1, "Alice", "a1@example.com", BIRTHDATE);
+        columns.upsert(2, "Alice", "a2@example.com", BIRTHDATE); // Committed after user 1 was renamed
+        columns.upsert(1, "Alice Old", "a1@example.com", BIRTHDATE);
+
+        assertThat(columns.findByName("Alice")).extracting(User::getId).containsExactly(2L);
+        assertThat(columns.findByName("Alice Old")).extracting(User::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Random inserts, updates and removals match a HashMap model, through several resizes")
+    @Tag("Positive")
+    void testAgainstReferenceModel() {
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(columns.remove(id)).isEqualTo(expected.remove(id) != null);
+            } else {
+                String name = "user-" + id + "-" + i;
+                columns.upsert(id, name, name + "@example.com", BIRTHDATE);
+                expected.put(id, name);
+            }
+        }
+
+        List<User> all = columns.findAll();
+        assertThat(all).hasSize(expected.size());
+        assertThat(all).extracting(User::getId).isSorted();
+        for (User user : all) {
+            assertThat(user.getName()).isEqualTo(expected.get(user.getId()));
+            assertThat(columns.findByName(user.getName())).extracting(User::getId).containsExactly(user.getId());
+        }
+    }
+}
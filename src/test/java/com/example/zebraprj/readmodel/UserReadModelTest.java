@@ -0,0 +1,101 @@
+package com.example.zebraprj.readmodel;
+
+import com.example.zebraprj.AbstractPostgresTest;
+import com.example.zebraprj.invalidation.UsersInvalidatedEvent;
+import com.example.zebraprj.model.User;
+import com.example.zebraprj.repository.UserRepository;
+import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+// Rows written with plain JDBC publish no UserChangeEvent, so they show whether a read came from memory
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "grpc.server.in-process-name=read-model-test",
+        "grpc.server.port=-1",
+        "zebra.invalidation.enabled=false",
+        "zebra.read-model.enabled=true"
+})
+class UserReadModelTest extends AbstractPostgresTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserReadModel readModel;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+        userRepository.deleteAll();
+        userRepository.save(new User(null, "Alice Smith", "alice@example.com", LocalDate.of(1999, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("Committed JPA writes are applied to the read model")
+    @Tag("Positive")
+    void testWritesAreApplied() {
+        assertThat(readModel.isReady()).isTrue();
+        assertThat(readModel.findByName("Alice Smith")).singleElement()
+                .satisfies(user -> assertThat(user.getEmail()).isEqualTo("alice@example.com"));
+
+        User alice = userRepository.findByName("Alice Smith").get(0);
+        alice.setEmail("alice.smith@example.com");
+        userRepository.save(alice);
+        assertThat(readModel.findByName("Alice Smith").get(0).getEmail()).isEqualTo("alice.smith@example.com");
+
+        userRepository.delete(alice);
+        assertThat(readModel.findByName("Alice Smith")).isEmpty();
+        assertThat(readModel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("GET /users is served from memory; another node's write is picked up from its invalidation")
+    @Tag("Positive")
+    void testReadsComeFromMemory() {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO users (name, email, birthdate) VALUES ('Bob Johnson', 'bob@example.com', DATE '1994-02-15') "
+                        + "RETURNING id", Long.class);
+
+        given().when().get("/users")
+        .then()
+                .statusCode(200)
+                .body("name", hasItem("Alice Smith"))
+                .body("name", not(hasItem("Bob Johnson")));
+
+        eventPublisher.publishEvent(new UsersInvalidatedEvent(Set.of(id), Set.of(), false));
+
+        given().when().get("/users")
+        .then()
+                .statusCode(200)
+                .body("name", hasItem("Bob Johnson"));
+        assertThat(readModel.findByName("Bob Johnson")).extracting(User::getId).containsExactly(id);
+    }
+}
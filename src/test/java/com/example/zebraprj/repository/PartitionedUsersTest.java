@@ -0,0 +1,150 @@
+package com.example.zebraprj.repository;
+
+import com.example.zebraprj.AbstractPostgresTest;
+import com.example.zebraprj.model.User;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// The schema comes from db/partitioned-users.sql (the profile turns Hibernate's ddl step off)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("partitioned")
+@TestPropertySource(properties = {
+        "grpc.server.in-process-name=partitioned-test",
+        "grpc.server.port=-1"
+})
+class PartitionedUsersTest extends AbstractPostgresTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+        userRepository.deleteAll();
+        userRepository.save(new User(null, "Alice Smith", "alice@example.com", LocalDate.of(1999, 1, 1)));
+    }
+
+    @Test
+    @DisplayName("users is a hash-partitioned table and the guard tables follow every write")
+    @Tag("Positive")
+    void testLayout() {
+        assertThat(jdbcTemplate.queryForObject("SELECT relkind::text FROM pg_class WHERE relname = 'users'", String.class))
+                .isEqualTo("p");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM user_names WHERE name = 'Alice Smith'", Long.class))
+                .isEqualTo(1L);
+
+        User alice = userRepository.findByName("Alice Smith").get(0);
+        alice.setEmail("alice.smith@example.com");
+        userRepository.save(alice);
+        assertThat(jdbcTemplate.queryForList("SELECT email FROM user_emails", String.class))
+                .containsExactly("alice.smith@example.com");
+    }
+
+    @Test
+    @DisplayName("POST /users - a taken name or email is reported per record, as with the unpartitioned table")
+    @Tag("Negative")
+    void testPOSTUsersDuplicates() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(
+                        Map.of("name", "Alice Smith", "email", "other@example.com", "birthdate", "2001-01-01"),
+                        Map.of("name", "Other Name", "email", "alice@example.com", "birthdate", "2001-01-01"),
+                        Map.of("name", "Carol White", "email", "carol@example.com", "birthdate", "2001-01-01")))
+        .when()
+                .post("/users")
+        .then()
+                .statusCode(409)
+                .body("addedUsers[0].name", equalTo("Carol White"))
+                .body("errors[0].code", equalTo("NAME_TAKEN"))
+                .body("errors[1].code", equalTo("EMAIL_TAKEN"));
+
+        assertThat(userRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("POST /deleteuser by name frees the name and email for a new user")
+    @Tag("Positive")
+    void testDeleteByNameReleasesKeys() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(Map.of("name", "Alice Smith")))
+        .when()
+                .post("/deleteuser")
+        .then()
+                .statusCode(200)
+                .body("deleted[0].code", equalTo("DELETED"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(Map.of("name", "Alice Smith", "email", "alice@example.com", "birthdate", "2002-02-02")))
+        .when()
+                .post("/users")
+        .then()
+                .statusCode(200);
+    }
+
+    @Test
+    @DisplayName("POST /users/import - duplicates within the file and against existing users are skipped")
+    @Tag("Positive")
+    void testCsvImport() {
+        String csv = """
+                name,email,birthdate
+                Dave Brown,dave@example.com,1990-05-05
+                Alice Smith,alice2@example.com,1990-05-05
+                Dave Brown,dave2@example.com,1990-05-05
+                Erin Green,erin@example.com,1991-06-06
+                """;
+        given()
+                .contentType("text/csv")
+                .body(csv)
+        .when()
+                .post("/users/import")
+        .then()
+                .statusCode(200)
+                .body("inserted", equalTo(2))
+                .body("conflicts", equalTo(2));
+    }
+
+    @Test
+    @DisplayName("A name lookup on the guard table is pruned to a single partition")
+    @Tag("Positive")
+    void testGuardLookupPrunesPartitions() {
+        List<String> plan = jdbcTemplate.queryForList(
+                "EXPLAIN SELECT EXISTS (SELECT 1 FROM user_names WHERE name = 'Alice Smith')", String.class);
+
+        // One partition appears as both the index and the table, e.g. "using user_names_p3_pkey on user_names_p3"
+        List<String> partitions = plan.stream()
+                .flatMap(line -> Pattern.compile("user_names_p\\d+\\b").matcher(line).results())
+                .map(MatchResult::group)
+                .distinct()
+                .toList();
+        assertThat(partitions).hasSize(1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.zebraprj.service;
+
+import com.example.zebraprj.AbstractPostgresTest;
+import com.example.zebraprj.dto.RecordStatus;
+import com.example.zebraprj.model.User;
+import com.example.zebraprj.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "zebra.batch.chunk-size=2",
+        "grpc.server.in-process-name=chunked-batch-test",
+        "grpc.server.port=-1"
+})
+public class ChunkedBatchExecutorTest extends AbstractPostgresTest {
+
+    @Autowired
+    private ChunkedBatchExecutor batchExecutor;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private static User user(String name) {
+        return new User(null, name, name.toLowerCase() + "@example.com", LocalDate.of(2000, 1, 1));
+    }
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        userRepository.save(user("Taken"));
+    }
+
+    @Test
+    @DisplayName("A chunk failing after an earlier chunk committed is reported per record and later chunks still run")
+    @Tag("Negative")
+    public void testFailedChunkAfterCommittedChunk() {
+        // Chunks: [A, B] commits, [C, Taken] hits the unique constraint and rolls back C too, [E] commits
+        List<User> users = List.of(user("A"), user("B"), user("C"), user("Taken"), user("E"));
+        List<Integer> offsets = new ArrayList<>();
+
+        List<RecordStatus.Code> codes = batchExecutor.mapInChunks(users,
+                user -> {
+                    userRepository.save(user); // No existence check, so the duplicate reaches the database
+                    return RecordStatus.Code.CREATED;
+                },
+                user -> RecordStatus.Code.FAILED,
+                (offset, results) -> offsets.add(offset));
+
+        assertEquals(List.of(RecordStatus.Code.CREATED, RecordStatus.Code.CREATED,
+                RecordStatus.Code.FAILED, RecordStatus.Code.FAILED, RecordStatus.Code.CREATED), codes);
+        assertEquals(List.of(0, 2, 4), offsets);
+        assertFalse(userRepository.findByName("A").isEmpty());
+        assertFalse(userRepository.findByName("B").isEmpty());
+        assertTrue(userRepository.findByName("C").isEmpty(), "C was rolled back with its chunk");
+        assertFalse(userRepository.findByName("E").isEmpty());
+        assertEquals(4, userRepository.count());
+    }
+
+    @Test
+    @DisplayName("A non-database failure stops the loop and keeps the chunks committed before it")
+    @Tag("Negative")
+    public void testOtherFailureStops() {
+        List<User> users = List.of(user("A"), user("B"), user("C"), user("D"));
+
+        assertThrows(IllegalStateException.class, () -> batchExecutor.mapInChunks(users,
+                user -> {
+                    if (user.getName().equals("C")) {
+                        throw new IllegalStateException("cancelled");
+                    }
+                    userRepository.save(user);
+                    return RecordStatus.Code.CREATED;
+                },
+                user -> RecordStatus.Code.FAILED));
+
+        assertFalse(userRepository.findByName("B").isEmpty());
+        assertTrue(userRepository.findByName("D").isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.zebraprj.tracing;
+
+import com.example.zebraprj.AbstractPostgresTest;
+import com.example.zebraprj.grpc.AddUserRequest;
+import com.example.zebraprj.grpc.UserGrpcServiceGrpc;
+import com.example.zebraprj.grpc.UserMessage;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Spans are collected by an in-memory exporter next to the configured ones; export is batched, so the
+// assertions poll for the span that closes the request (the server span)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "grpc.server.in-process-name=tracing-test",
+        "grpc.server.port=-1",
+        "grpc.client.tracing-test.address=in-process:tracing-test"
+})
+class TracingTest extends AbstractPostgresTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+    @TestConfiguration
+    static class SpanCapture {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InMemorySpanExporter spans;
+
+    @GrpcClient("tracing-test")
+    private UserGrpcServiceGrpc.UserGrpcServiceBlockingStub stub;
+
+    @BeforeEach
+    void setUp() {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+        spans.reset();
+    }
+
+    @Test
+    @DisplayName("POST /users continues the caller's trace with controller and repository spans")
+    @Tag("Positive")
+    void testRestTrace() throws InterruptedException {
+        given()
+                .contentType(ContentType.JSON)
+                .header("traceparent", "00-" + TRACE_ID + "-00f067aa0ba902b7-01")
+                .body(List.of(Map.of("name", "Traced User", "email", "traced@example.com", "birthdate", "2001-01-01")))
+        .when()
+                .post("/users")
+        .then()
+                .statusCode(200);
+
+        List<SpanData> trace = awaitTrace(span -> span.getTraceId().equals(TRACE_ID)
+                && span.getName().startsWith("http post"));
+        assertThat(trace).extracting(SpanData::getName)
+                .contains("ZebraPrjController.addUsers", "UserKeyLookup.nameExists", "UserKeyLookup.emailExists",
+                        "UserRepository.save");
+    }
+
+    @Test
+    @DisplayName("gRPC AddUser: repository spans on the DB executor thread belong to the RPC's trace")
+    @Tag("GRPc")
+    void testGrpcTrace() throws InterruptedException {
+        stub.addUser(AddUserRequest.newBuilder()
+                .setUser(UserMessage.newBuilder()
+                        .setName("Traced Rpc")
+                        .setEmail("traced-rpc@example.com")
+                        .setBirthdate("2001-01-01"))
+                .build());
+
+        SpanData rpc = awaitSpan(span -> span.getName().endsWith("AddUser")
+                && span.getKind() == SpanKind.SERVER);
+        List<SpanData> trace = spans.getFinishedSpanItems().stream()
+                .filter(span -> span.getTraceId().equals(rpc.getTraceId()))
+                .toList();
+        assertThat(trace).extracting(SpanData::getName)
+                .contains("UserKeyLookup.nameExists", "UserRepository.save");
+    }
+
+    private List<SpanData> awaitTrace(Predicate<SpanData> last) throws InterruptedException {
+        SpanData span = awaitSpan(last);
+        return spans.getFinishedSpanItems().stream()
+                .filter(candidate -> candidate.getTraceId().equals(span.getTraceId()))
+                .toList();
+    }
+
+    private SpanData awaitSpan(Predicate<SpanData> predicate) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (System.currentTimeMillis() < deadline) {
+            for (SpanData span : spans.getFinishedSpanItems()) {
+                if (predicate.test(span)) {
+                    return span;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Span not exported, got " + spans.getFinishedSpanItems());
+    }
+}
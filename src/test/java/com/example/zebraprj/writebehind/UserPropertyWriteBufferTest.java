@@ -0,0 +1,65 @@
+package com.example.zebraprj.writebehind;
+
+import com.example.zebraprj.model.UserProperty;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Buffering only: the buffer is never started, so nothing is flushed and no Mongo is needed
+class UserPropertyWriteBufferTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserPropertyWriteBuffer buffer = new UserPropertyWriteBuffer(
+            new WriteBehindProperties(true, WriteBehindProperties.Durability.AFTER_FLUSH, 2, 2,
+                    Duration.ofHours(1), Duration.ofMillis(50), Duration.ofSeconds(5)),
+            null, null, meterRegistry);
+
+    @Test
+    @DisplayName("Updates of a buffered userId replace its document and share its completion")
+    @Tag("Positive")
+    void testCoalescing() {
+        CompletableFuture<Void> first = buffer.enqueue(property("42", "green"));
+        CompletableFuture<Void> second = buffer.enqueue(property("42", "blue"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(buffer.buffered()).isEqualTo(1);
+        assertThat(meterRegistry.get("zebra.userproperty.coalesced").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A full buffer rejects new userIds after the enqueue timeout but still takes updates")
+    @Tag("Negative")
+    void testBackpressure() {
+        buffer.enqueue(property("1", "green"));
+        buffer.enqueue(property("2", "green"));
+
+        assertThatThrownBy(() -> buffer.enqueue(property("3", "green")))
+                .isInstanceOf(WriteBufferFullException.class);
+        assertThat(meterRegistry.get("zebra.userproperty.rejected").counter().count()).isEqualTo(1);
+
+        buffer.enqueue(property("2", "blue"));
+        assertThat(buffer.buffered()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Once stopped, the buffer rejects writes instead of keeping them past the final flush")
+    @Tag("Negative")
+    void testRejectsAfterStop() {
+        buffer.stop();
+
+        assertThatThrownBy(() -> buffer.enqueue(property("1", "green")))
+                .isInstanceOf(WriteBufferFullException.class);
+        assertThat(buffer.buffered()).isZero();
+    }
+
+    private static UserProperty property(String userId, String colour) {
+        return new UserProperty(userId, "Main", "Org", colour);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.zebraprj.writebehind;
+
+import com.example.zebraprj.model.UserProperty;
+import com.example.zebraprj.repository.UserPropertyRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The flush interval is an hour, so batches go out only on the size trigger (2 userIds) or an explicit flush;
+// a lone document therefore outlives the 200ms flush timeout
+@Testcontainers
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "grpc.server.port=0",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "zebra.userproperty.write-behind.enabled=true",
+        "zebra.userproperty.write-behind.max-batch-size=2",
+        "zebra.userproperty.write-behind.flush-interval=1h",
+        "zebra.userproperty.write-behind.flush-timeout=200ms"
+})
+class WriteBehindUserPropertyTest {
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:7.0.5");
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getConnectionString);
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserPropertyRepository repository;
+
+    @Autowired
+    private UserPropertyWriteBuffer buffer;
+
+    @Test
+    @DisplayName("POST /userproperty with a full batch answers once both documents are in Mongo")
+    @Tag("Positive")
+    @Tag("Mongo")
+    void testBatchFlushedBeforeResponse() throws Exception {
+        String body = "[{\"userId\":\"wb-1\",\"address\":\"Main\",\"organisation\":\"Org\",\"favouriteColour\":\"green\"},"
+                + "{\"userId\":\"wb-2\",\"address\":\"High\",\"organisation\":\"Org\",\"favouriteColour\":\"red\"}]";
+
+        mockMvc.perform(post("/userproperty")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].userId").value("wb-2"));
+
+        assertThat(repository.findById("wb-1")).get().extracting(UserProperty::getFavouriteColour).isEqualTo("green");
+        assertThat(repository.findById("wb-2")).get().extracting(UserProperty::getAddress).isEqualTo("High");
+    }
+
+    @Test
+    @DisplayName("POST /userproperty whose batch is not flushed within flush-timeout - error 503 with Retry-After")
+    @Tag("Negative")
+    @Tag("Mongo")
+    void testFlushTimeout() throws Exception {
+        String body = "{\"userId\":\"wb-4\",\"address\":\"Main\",\"organisation\":\"Org\",\"favouriteColour\":\"green\"}";
+
+        mockMvc.perform(post("/userproperty")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // Still buffered, written by the next flush
+        buffer.flush();
+        assertThat(repository.findById("wb-4")).get().extracting(UserProperty::getFavouriteColour).isEqualTo("green");
+    }
+
+    @Test
+    @DisplayName("Coalesced updates of one userId are written once, with the latest document")
+    @Tag("Positive")
+    @Tag("Mongo")
+    void testCoalescedUpdatesWriteLatest() throws Exception {
+        CompletableFuture<Void> first = buffer.enqueue(new UserProperty("wb-3", "Main", "Org", "green"));
+        CompletableFuture<Void> second = buffer.enqueue(new UserProperty("wb-3", "Main", "Org", "blue"));
+
+        buffer.flush();
+
+        second.get(5, TimeUnit.SECONDS);
+        assertThat(first).isCompleted();
+        assertThat(repository.findById("wb-3")).get().extracting(UserProperty::getFavouriteColour).isEqualTo("blue");
+    }
+}